@@ -0,0 +1,56 @@
+package net.alex.game.queue.executor;
+
+import net.alex.game.queue.config.ExecutorConfig;
+import net.alex.game.queue.config.SerializerConfig;
+import net.alex.game.queue.scheduler.HeapEventScheduler;
+import net.alex.game.queue.scheduler.SchedulerType;
+import net.alex.game.queue.serialize.CodecType;
+import net.alex.game.queue.serialize.DisabledEventJournal;
+import net.alex.game.queue.serialize.InMemoryEventSerializer;
+import net.alex.game.queue.thread.GameEventThread;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VacantThreadBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    private int poolSize;
+
+    private GameThreadPoolExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        ExecutorConfig executorConfig = new ExecutorConfig(poolSize, poolSize, poolSize,
+                100, 0, Long.MAX_VALUE, 1, 1000, SchedulerType.HEAP,
+                1, 1024, 1, 100, Long.MAX_VALUE, false, true, ExecutionMode.INLINE, 1, 1);
+        SerializerConfig serializerConfig = new SerializerConfig("InMemoryEventSerializer", 1000,
+                CodecType.BINARY, null, 0);
+        executor = new GameThreadPoolExecutor(executorConfig, new InMemoryEventSerializer(serializerConfig),
+                DisabledEventJournal.INSTANCE, HeapEventScheduler::new, event -> {}, false);
+        invoke("startUp");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws ReflectiveOperationException {
+        invoke("shutdownAndWait");
+    }
+
+    @Benchmark
+    public GameEventThread getVacantThread() {
+        return executor.getVacantThread();
+    }
+
+    private void invoke(String lifecycleMethod) throws ReflectiveOperationException {
+        Method method = GameThreadPoolExecutor.class.getDeclaredMethod(lifecycleMethod);
+        method.setAccessible(true);
+        method.invoke(executor);
+    }
+}
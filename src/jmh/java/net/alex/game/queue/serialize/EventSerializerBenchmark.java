@@ -0,0 +1,56 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.SerializerConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class EventSerializerBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int eventCount;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    @Param({"JSON", "BINARY"})
+    private CodecType codec;
+
+    private EventSerializer eventSerializer;
+    private List<GameEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        eventSerializer = new InMemoryEventSerializer(new SerializerConfig("InMemoryEventSerializer", chunkSize,
+                codec, null, 0));
+        events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            GameEvent event = GameEvent.builder().id(String.valueOf(i)).universeId(String.valueOf(i % 100)).
+                    delay(i).timeUnit(TimeUnit.MILLISECONDS).build();
+            event.init();
+            events.add(event);
+        }
+        eventSerializer.writeEvents(events.iterator());
+    }
+
+    @Benchmark
+    public void writeEvents() throws IOException {
+        eventSerializer.writeEvents(events.iterator());
+    }
+
+    @Benchmark
+    public void readEvents(Blackhole blackhole) throws IOException {
+        eventSerializer.readEvents(blackhole::consume);
+    }
+}
@@ -0,0 +1,68 @@
+package net.alex.game.queue.thread;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.scheduler.SchedulerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddEventBenchmark {
+
+    @Param({"HEAP", "TIMING_WHEEL"})
+    private SchedulerType scheduler;
+
+    @Param({"4096"})
+    private int bufferSize;
+
+    private GameEventThread eventThread;
+    private Thread thread;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventThread = GameEventThread.builder().
+                eventExecutor(gameEvent -> true).
+                loadFactorPrecision(1000).
+                eventScheduler(BenchmarkSchedulers.create(scheduler)).
+                bufferSize(bufferSize).
+                build();
+        thread = new Thread(eventThread, "benchmark-event-thread");
+        thread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        eventThread.addEvent(QueueTerminationEvent.builder().id(UUID.randomUUID().toString()).delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void singleProducer() {
+        eventThread.addEvent(createEvent());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourProducers() {
+        eventThread.addEvent(createEvent());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void sixteenProducers() {
+        eventThread.addEvent(createEvent());
+    }
+
+    private static GameEvent createEvent() {
+        return GameEvent.builder().id("event").universeId("universe").delay(0).timeUnit(TimeUnit.MILLISECONDS).build();
+    }
+}
@@ -0,0 +1,19 @@
+package net.alex.game.queue.thread;
+
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.scheduler.HeapEventScheduler;
+import net.alex.game.queue.scheduler.SchedulerType;
+import net.alex.game.queue.scheduler.TimingWheelEventScheduler;
+
+final class BenchmarkSchedulers {
+
+    private BenchmarkSchedulers() {
+    }
+
+    static EventScheduler create(SchedulerType type) {
+        return switch (type) {
+            case HEAP -> new HeapEventScheduler();
+            case TIMING_WHEEL -> new TimingWheelEventScheduler(1);
+        };
+    }
+}
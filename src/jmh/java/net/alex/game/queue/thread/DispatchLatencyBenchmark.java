@@ -0,0 +1,59 @@
+package net.alex.game.queue.thread;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.scheduler.SchedulerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class DispatchLatencyBenchmark {
+
+    @Param({"HEAP", "TIMING_WHEEL"})
+    private SchedulerType scheduler;
+
+    private volatile GameEvent lastExecuted;
+
+    private GameEventThread eventThread;
+    private Thread thread;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventThread = GameEventThread.builder().
+                eventExecutor(gameEvent -> {
+                    lastExecuted = gameEvent;
+                    return true;
+                }).
+                loadFactorPrecision(1000).
+                eventScheduler(BenchmarkSchedulers.create(scheduler)).
+                build();
+        thread = new Thread(eventThread, "benchmark-event-thread");
+        thread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        eventThread.addEvent(QueueTerminationEvent.builder().id(UUID.randomUUID().toString()).delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.join();
+    }
+
+    @Benchmark
+    public GameEvent scheduleToDispatch() {
+        GameEvent event = GameEvent.builder().id("event").universeId("universe").delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).build();
+        eventThread.addEvent(event);
+        while (lastExecuted != event) {
+            Thread.onSpinWait();
+        }
+        return event;
+    }
+}
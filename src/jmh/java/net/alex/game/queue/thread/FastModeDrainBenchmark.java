@@ -0,0 +1,55 @@
+package net.alex.game.queue.thread;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.scheduler.SchedulerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FastModeDrainBenchmark {
+
+    @Param({"HEAP", "TIMING_WHEEL"})
+    private SchedulerType scheduler;
+
+    @Param({"1000000"})
+    private int events;
+
+    @Param({"1", "64"})
+    private int batchSize;
+
+    private EventScheduler eventScheduler;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        eventScheduler = BenchmarkSchedulers.create(scheduler);
+        List<GameEvent> gameEvents = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            GameEvent event = GameEvent.builder().id(String.valueOf(i)).universeId("universe").
+                    delay(i % 100_000).timeUnit(TimeUnit.SECONDS).build();
+            event.init();
+            gameEvents.add(event);
+        }
+        eventScheduler.offerAll(gameEvents);
+    }
+
+    @Benchmark
+    public int drain() {
+        List<GameEvent> batch = new ArrayList<>(batchSize);
+        int drained = 0;
+        int count;
+        while ((count = eventScheduler.drainTo(batch, batchSize, e -> true)) > 0) {
+            drained += count;
+            batch.clear();
+        }
+        return drained;
+    }
+}
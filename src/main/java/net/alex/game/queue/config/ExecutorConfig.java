@@ -1,6 +1,37 @@
 package net.alex.game.queue.config;
 
+import net.alex.game.queue.executor.ExecutionMode;
+import net.alex.game.queue.scheduler.SchedulerType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "executor")
-public record ExecutorConfig(int poolSize, long loadFactorPrecision) {}
+public record ExecutorConfig(int poolSize,
+                             int minPoolSize,
+                             int maxPoolSize,
+                             double scaleUpLoadFactor,
+                             double scaleDownLoadFactor,
+                             long scaleInterval,
+                             int scaleSamples,
+                             long loadFactorPrecision,
+                             SchedulerType scheduler,
+                             long tickDuration,
+                             int bufferSize,
+                             int batchSize,
+                             double rebalanceThreshold,
+                             long rebalanceInterval,
+                             boolean workStealing,
+                             boolean orderedUniverses,
+                             ExecutionMode executionMode,
+                             int maxInFlight,
+                             int maxInFlightPerUniverse) {
+
+    // elastic sizing is opt-in, without explicit bounds the pool stays at poolSize
+    public ExecutorConfig {
+        if (minPoolSize <= 0) {
+            minPoolSize = poolSize;
+        }
+        if (maxPoolSize <= 0) {
+            maxPoolSize = poolSize;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package net.alex.game.queue.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "journal")
+public record JournalConfig(boolean enabled,
+                            String directory,
+                            int groupCommitSize,
+                            long groupCommitInterval,
+                            long segmentSize,
+                            int maxSegments,
+                            long checkpointInterval,
+                            int checkpointBatchSize,
+                            boolean journalOnlyShutdown) {}
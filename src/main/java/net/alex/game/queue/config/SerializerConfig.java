@@ -1,6 +1,11 @@
 package net.alex.game.queue.config;
 
+import net.alex.game.queue.serialize.CodecType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "serializer")
-public record SerializerConfig(String implementation) {}
+public record SerializerConfig(String implementation,
+                               int chunkSize,
+                               CodecType codec,
+                               String directory,
+                               int segmentSize) {}
@@ -1,29 +1,61 @@
 package net.alex.game.queue.config;
 
 import net.alex.game.queue.executor.GameThreadPoolExecutor;
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.scheduler.HeapEventScheduler;
+import net.alex.game.queue.scheduler.SchedulerType;
+import net.alex.game.queue.scheduler.TimingWheelEventScheduler;
+import net.alex.game.queue.scheduler.UniverseEventScheduler;
+import net.alex.game.queue.serialize.DisabledEventJournal;
+import net.alex.game.queue.serialize.EventJournal;
 import net.alex.game.queue.serialize.EventSerializer;
+import net.alex.game.queue.serialize.FileEventJournal;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.function.Supplier;
+
 @Configuration
 public class ThreadPoolConfig {
 
     private final ExecutorConfig executorConfig;
     private final EventSerializer eventSerializer;
+    private final JournalConfig journalConfig;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ThreadPoolConfig(ExecutorConfig executorConfig,
                             SerializerConfig serializerConfig,
-                            BeanFactory beanFactory) {
+                            JournalConfig journalConfig,
+                            BeanFactory beanFactory,
+                            ApplicationEventPublisher eventPublisher) {
         this.executorConfig = executorConfig;
         this.eventSerializer = beanFactory.getBean(serializerConfig.implementation(), EventSerializer.class);
+        this.journalConfig = journalConfig;
+        this.eventPublisher = eventPublisher;
     }
 
     @Bean
     public GameThreadPoolExecutor gameThreadPoolExecutor() {
         return new GameThreadPoolExecutor(
-                executorConfig.poolSize(),
-                executorConfig.loadFactorPrecision(),
-                eventSerializer);
+                executorConfig,
+                eventSerializer,
+                eventJournal(),
+                eventSchedulerSupplier(),
+                eventPublisher,
+                journalConfig.journalOnlyShutdown());
+    }
+
+    private EventJournal eventJournal() {
+        return journalConfig.enabled() ? new FileEventJournal(journalConfig) : DisabledEventJournal.INSTANCE;
+    }
+
+    private Supplier<EventScheduler> eventSchedulerSupplier() {
+        if (executorConfig.scheduler() == SchedulerType.TIMING_WHEEL) {
+            return () -> new UniverseEventScheduler(clock ->
+                    new TimingWheelEventScheduler(executorConfig.tickDuration(), clock));
+        }
+        return () -> new UniverseEventScheduler(HeapEventScheduler::new);
     }
 }
@@ -1,18 +1,25 @@
 package net.alex.game.queue.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.model.out.EventResultOut;
 import net.alex.game.queue.service.EventService;
 import org.springframework.http.MediaType;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping(path = "/v1/api/game")
@@ -20,6 +27,8 @@ public class EventController {
 
     private final EventService eventService;
 
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
     public EventController(EventService eventService) {
         this.eventService = eventService;
     }
@@ -43,4 +52,105 @@ public class EventController {
                          @RequestBody @Valid GameEvent event) {
         eventService.addEvent(event);
     }
+
+    @Operation(summary = "Add a batch of events to queue, events are accepted or declined one by one",
+            tags = {"event"},
+            method = "POST",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Batch processed, per event results are returned in the batch order",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = EventResultOut.class)))
+                    )
+            })
+    @PostMapping(value = "/events/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<EventResultOut> addEvents(@Parameter(content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                                  array = @ArraySchema(schema = @Schema(implementation = GameEvent.class))))
+                                          @RequestBody List<JsonNode> events) {
+        return eventService.addEvents(events);
+    }
+
+    @Operation(summary = "Add a stream of newline delimited events to queue, events are accepted or declined one by one",
+            tags = {"event"},
+            method = "POST",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Batch processed, per event results are returned in the stream order",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = EventResultOut.class)))
+                    )
+            })
+    @PostMapping(value = "/events/batch",
+            consumes = NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<EventResultOut> addEvents(InputStream events) throws IOException {
+        return eventService.addEvents(events);
+    }
+
+    @Operation(summary = "Change the clock speed of the given universe, 0 pauses it and 1 runs it in real time",
+            tags = {"event"},
+            method = "PUT",
+            security = @SecurityRequirement(name = "api_key", scopes = { "ADMIN", "OWNER:UNIVERSE" }),
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Universe clock speed successfully changed",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    ),
+                    @ApiResponse(responseCode = "400",
+                            description = "Speed is negative or not a number",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    )
+            })
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OWNER:Universe:' + #universeId)")
+    @PutMapping(value = "/universes/{universeId}/speed", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void changeUniverseSpeed(@Parameter(description = "Universe id")
+                                    @PathVariable(value = "universeId") String universeId,
+                                    @Parameter(description = "Speed factor of the universe clock")
+                                    @RequestParam(value = "speed") double speed) {
+        eventService.changeUniverseSpeed(universeId, speed);
+    }
+
+    @Operation(summary = "Cancel a pending event of the given universe",
+            tags = {"event"},
+            method = "DELETE",
+            security = @SecurityRequirement(name = "api_key", scopes = { "ADMIN", "OWNER:UNIVERSE" }),
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Cancellation accepted, an event that is not pending anymore is left as is",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    )
+            })
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OWNER:Universe:' + #universeId)")
+    @DeleteMapping(value = "/universes/{universeId}/events/{eventId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void cancelEvent(@Parameter(description = "Universe id")
+                            @PathVariable(value = "universeId") String universeId,
+                            @Parameter(description = "Event id")
+                            @PathVariable(value = "eventId") String eventId) {
+        eventService.cancelEvent(universeId, eventId);
+    }
+
+    @Operation(summary = "Move a pending event of the given universe to a new delay counted from now",
+            tags = {"event"},
+            method = "PUT",
+            security = @SecurityRequirement(name = "api_key", scopes = { "ADMIN", "OWNER:UNIVERSE" }),
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Rescheduling accepted, an event that is not pending anymore is left as is",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)
+                    )
+            })
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('OWNER:Universe:' + #universeId)")
+    @PutMapping(value = "/universes/{universeId}/events/{eventId}/delay", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void rescheduleEvent(@Parameter(description = "Universe id")
+                                @PathVariable(value = "universeId") String universeId,
+                                @Parameter(description = "Event id")
+                                @PathVariable(value = "eventId") String eventId,
+                                @Parameter(description = "New delay of the event")
+                                @RequestParam(value = "delay") long delay,
+                                @Parameter(description = "Time unit of the delay")
+                                @RequestParam(value = "timeUnit", defaultValue = "MILLISECONDS") TimeUnit timeUnit) {
+        eventService.rescheduleEvent(universeId, eventId, delay, timeUnit);
+    }
 }
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import net.alex.game.queue.model.out.RestoreStatusOut;
 import net.alex.game.queue.service.ThreadService;
 import net.alex.game.queue.thread.GameThreadStats;
 import org.springframework.http.MediaType;
@@ -72,4 +73,19 @@ public class ThreadController {
     public List<GameThreadStats> getThreadStatisticsList() {
         return threadService.getThreadStatisticsList();
     }
+
+    @Operation(summary = "Get progress of restoring backed up events",
+            tags = {"thread"},
+            method = "GET",
+            responses = {
+                    @ApiResponse(responseCode = "200",
+                            description = "Restore status successfully retrieved",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = RestoreStatusOut.class))
+                    )
+            })
+    @GetMapping(value = "/threads/restore", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RestoreStatusOut getRestoreStatus() {
+        return threadService.getRestoreStatus();
+    }
 }
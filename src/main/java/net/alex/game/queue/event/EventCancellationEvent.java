@@ -0,0 +1,11 @@
+package net.alex.game.queue.event;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import net.alex.game.model.event.GameEvent;
+
+@Getter
+@SuperBuilder
+public class EventCancellationEvent extends GameEvent implements SystemEvent {
+    private final String targetId;
+}
@@ -0,0 +1,15 @@
+package net.alex.game.queue.event;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import net.alex.game.model.event.GameEvent;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@SuperBuilder
+public class EventRescheduleEvent extends GameEvent implements SystemEvent {
+    private final String targetId;
+    private final long targetDelay;
+    private final TimeUnit targetTimeUnit;
+}
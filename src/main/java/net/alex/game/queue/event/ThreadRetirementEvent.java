@@ -0,0 +1,15 @@
+package net.alex.game.queue.event;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import net.alex.game.model.event.GameEvent;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+@Getter
+@SuperBuilder
+public class ThreadRetirementEvent extends GameEvent implements SystemEvent {
+    private final transient Consumer<Collection<GameEvent>> handOver;
+    private final transient Runnable detach;
+}
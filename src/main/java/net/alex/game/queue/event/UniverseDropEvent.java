@@ -0,0 +1,8 @@
+package net.alex.game.queue.event;
+
+import lombok.experimental.SuperBuilder;
+import net.alex.game.model.event.GameEvent;
+
+@SuperBuilder
+public class UniverseDropEvent extends GameEvent implements SystemEvent {
+}
@@ -0,0 +1,13 @@
+package net.alex.game.queue.event;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.thread.GameEventThread;
+
+@Getter
+@SuperBuilder
+public class UniverseMigrationEvent extends GameEvent implements SystemEvent {
+    private final transient GameEventThread targetThread;
+    private final transient Runnable reroute;
+}
@@ -0,0 +1,20 @@
+package net.alex.game.queue.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+import net.alex.game.model.event.GameEvent;
+
+import java.util.List;
+
+@ToString(callSuper = true)
+@Getter
+@SuperBuilder
+@Jacksonized
+public class UniverseSuspensionEvent extends GameEvent implements SystemEvent {
+    private final boolean suspend;
+    // parked events a suspended universe takes along when it leaves a thread or the backup,
+    // so none of them is scheduled on the way
+    private final List<GameEvent> parkedEvents;
+}
@@ -0,0 +1,17 @@
+package net.alex.game.queue.exception;
+
+import net.alex.game.queue.annotation.HttpStatusMapping;
+
+import java.io.Serial;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@HttpStatusMapping(status = BAD_REQUEST)
+public class InvalidUniverseSpeedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 3170462883410934755L;
+
+    public InvalidUniverseSpeedException() {
+        super("Universe speed must be a finite non-negative number");
+    }
+}
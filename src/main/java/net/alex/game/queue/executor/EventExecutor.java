@@ -2,6 +2,19 @@ package net.alex.game.queue.executor;
 
 import net.alex.game.model.event.GameEvent;
 
+import java.util.List;
+
 public interface EventExecutor {
     boolean executeEvent(GameEvent gameEvent);
+
+    // a batch holds due events of one universe in fire order, handlers can override it to load the universe once
+    default int executeEvents(List<GameEvent> gameEvents) {
+        int succeeded = 0;
+        for (GameEvent gameEvent : gameEvents) {
+            if (executeEvent(gameEvent)) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
 }
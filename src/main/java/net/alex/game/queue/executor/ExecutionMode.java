@@ -0,0 +1,6 @@
+package net.alex.game.queue.executor;
+
+public enum ExecutionMode {
+    INLINE,
+    OFFLOADED
+}
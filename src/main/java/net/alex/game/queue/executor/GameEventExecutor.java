@@ -3,10 +3,21 @@ package net.alex.game.queue.executor;
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
 
+import java.util.List;
+
 @Slf4j
 public class GameEventExecutor implements EventExecutor {
     public boolean executeEvent(GameEvent gameEvent) {
         log.info("Routing event {} for universe {}", gameEvent.getId(), gameEvent.getUniverseId());
         return true;
     }
+
+    @Override
+    public int executeEvents(List<GameEvent> gameEvents) {
+        if (gameEvents.size() == 1) {
+            return executeEvent(gameEvents.get(0)) ? 1 : 0;
+        }
+        log.info("Routing {} events for universe {}", gameEvents.size(), gameEvents.get(0).getUniverseId());
+        return gameEvents.size();
+    }
 }
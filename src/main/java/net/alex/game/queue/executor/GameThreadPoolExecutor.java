@@ -4,104 +4,410 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.ExecutorConfig;
 import net.alex.game.queue.event.InitStatisticsEvent;
 import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.event.ThreadRetirementEvent;
+import net.alex.game.queue.event.UniverseMigrationEvent;
 import net.alex.game.queue.exception.WaitingInterruptedException;
+import net.alex.game.queue.model.out.RestoreStatusOut;
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.serialize.EventJournal;
 import net.alex.game.queue.serialize.EventSerializer;
 import net.alex.game.queue.thread.GameEventThread;
 import net.alex.game.queue.thread.GameThreadStats;
+import net.alex.game.queue.thread.OffloadedExecution;
+import net.alex.game.queue.thread.WorkStealingGroup;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 public class GameThreadPoolExecutor extends ThreadPoolExecutor {
     private final List<GameEventThread> activeTasks = Collections.synchronizedList(new ArrayList<>());
 
-    private final long loadFactorPrecision;
+    private final UniverseRouter universeRouter = new UniverseRouter();
+    private final RestoreProgress restoreProgress = new RestoreProgress();
+
+    private final ExecutorConfig executorConfig;
     private final EventSerializer eventSerializer;
-    private final Random random = new Random();
+    private final EventJournal eventJournal;
+    private final Supplier<EventScheduler> eventSchedulerSupplier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean journalOnlyShutdown;
+
+    // threads added by scaling stay off the hash ring, rebalancing moves universes onto them
+    private final Deque<GameEventThread> scaledThreads = new ArrayDeque<>();
+    private final Map<GameEventThread, Long> executionTimeSamples = new IdentityHashMap<>();
+    private final Object scalingLock = new Object();
+
+    private Thread restoreThread;
+    private ExecutorService handlerExecutor;
+    private OffloadedExecution offloadedExecution;
+    private WorkStealingGroup workStealingGroup;
+    private int threadIndex;
+    private long lastScaleTime;
+    private int highLoadSamples;
+    private int lowLoadSamples;
+    private boolean stopping = false;
 
-    public GameThreadPoolExecutor(int corePoolSize,
-                                  long loadFactorPrecision,
-                                  EventSerializer eventSerializer) {
-        super(corePoolSize, corePoolSize, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
-        this.loadFactorPrecision = loadFactorPrecision;
+    public GameThreadPoolExecutor(ExecutorConfig executorConfig,
+                                  EventSerializer eventSerializer,
+                                  EventJournal eventJournal,
+                                  Supplier<EventScheduler> eventSchedulerSupplier,
+                                  ApplicationEventPublisher eventPublisher,
+                                  boolean journalOnlyShutdown) {
+        super(executorConfig.poolSize(), Math.max(executorConfig.poolSize(), executorConfig.maxPoolSize()),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        this.executorConfig = executorConfig;
         this.eventSerializer = eventSerializer;
+        this.eventJournal = eventJournal;
+        this.eventSchedulerSupplier = eventSchedulerSupplier;
+        this.eventPublisher = eventPublisher;
+        this.journalOnlyShutdown = journalOnlyShutdown;
     }
 
     public GameEventThread getVacantThread() {
         return activeTasks.stream().
-                min(Comparator.comparingDouble(e -> e.getStatistics().getMomentaryLoadFactor())).
+                min(Comparator.comparingDouble(GameEventThread::getMomentaryLoadFactor)).
                 orElseThrow();
     }
 
+    public GameEventThread getUniverseThread(String universeId) {
+        if (universeId == null) {
+            return getVacantThread();
+        }
+        return universeRouter.route(universeId);
+    }
+
+    @Scheduled(fixedDelayString = "${executor.rebalanceInterval}")
+    public void rebalance() {
+        List<GameEventThread> threads;
+        synchronized (activeTasks) {
+            threads = new ArrayList<>(activeTasks);
+        }
+        if (threads.size() < 2) {
+            return;
+        }
+        Map<GameEventThread, Map<String, Long>> universeLoads = new HashMap<>();
+        threads.forEach(t -> universeLoads.put(t, t.drainUniverseLoad()));
+
+        Comparator<GameEventThread> byLoad = Comparator.comparingDouble(GameEventThread::getMomentaryLoadFactor);
+        GameEventThread source = threads.stream().max(byLoad).orElseThrow();
+        GameEventThread target = threads.stream().min(byLoad).orElseThrow();
+        double sourceLoad = source.getMomentaryLoadFactor();
+        double targetLoad = target.getMomentaryLoadFactor();
+        Map<String, Long> sourceUniverses = universeLoads.get(source);
+        if (source == target || sourceLoad < executorConfig.rebalanceThreshold() || sourceUniverses.size() < 2) {
+            return;
+        }
+
+        long totalLoad = sourceUniverses.values().stream().mapToLong(Long::longValue).sum();
+        double maxMovedLoad = (sourceLoad - targetLoad) / 2;
+        sourceUniverses.entrySet().stream().
+                filter(e -> e.getValue() * sourceLoad / totalLoad <= maxMovedLoad).
+                max(Map.Entry.comparingByValue()).
+                map(Map.Entry::getKey).
+                ifPresent(universeId -> migrateUniverse(universeId, source, target));
+    }
+
+    // utilization is taken from execution time deltas, the momentary load factor goes stale on idle threads
+    @Scheduled(fixedDelayString = "${executor.scaleInterval}")
+    public void scale() {
+        scale(System.currentTimeMillis(), thread -> thread.getStatistics().getTotalExecutionTime());
+    }
+
+    void scale(long now, ToLongFunction<GameEventThread> executionTimeSampler) {
+        synchronized (scalingLock) {
+            List<GameEventThread> threads;
+            synchronized (activeTasks) {
+                threads = new ArrayList<>(activeTasks);
+            }
+            if (stopping || threads.isEmpty()) {
+                return;
+            }
+            long interval = now - lastScaleTime;
+            lastScaleTime = now;
+            Map<GameEventThread, Long> executionTimes = new IdentityHashMap<>();
+            long totalExecutionTime = 0;
+            for (GameEventThread thread : threads) {
+                long executionTime = executionTimeSampler.applyAsLong(thread);
+                Long previous = executionTimeSamples.put(thread, executionTime);
+                long delta = previous != null ? executionTime - previous : 0;
+                executionTimes.put(thread, delta);
+                totalExecutionTime += delta;
+            }
+            executionTimeSamples.keySet().retainAll(executionTimes.keySet());
+            double load = interval > 0 ? totalExecutionTime * 100.0 / interval / threads.size() : 0;
+
+            highLoadSamples = load > executorConfig.scaleUpLoadFactor() ? highLoadSamples + 1 : 0;
+            lowLoadSamples = load < executorConfig.scaleDownLoadFactor() ? lowLoadSamples + 1 : 0;
+            if (highLoadSamples >= executorConfig.scaleSamples() && threads.size() < executorConfig.maxPoolSize()) {
+                highLoadSamples = 0;
+                addThread(load);
+            } else if (lowLoadSamples >= executorConfig.scaleSamples() && threads.size() > executorConfig.minPoolSize()) {
+                lowLoadSamples = 0;
+                GameEventThread thread = !scaledThreads.isEmpty() ? scaledThreads.peekLast() :
+                        threads.stream().min(Comparator.comparingLong(executionTimes::get)).orElseThrow();
+                if (scaledThreads.contains(thread) || threads.size() - scaledThreads.size() > 1) {
+                    retireThread(thread, load);
+                }
+            }
+        }
+    }
+
     public List<GameThreadStats> getThreadStatisticsList() {
         return activeTasks.stream().map(GameEventThread::getStatistics).toList();
     }
 
+    public RestoreProgress getRestoreProgress() {
+        return restoreProgress;
+    }
+
+    // a restore still in progress would otherwise bring the events of a dropped universe back
+    public void deleteBackup(String universeId) {
+        try {
+            eventSerializer.deleteUniverse(universeId);
+        } catch (IOException e) {
+            log.warn("Unable to delete backup of universe {}", universeId);
+            log.warn(e.getMessage(), e);
+        }
+    }
+
+    // the application turns ready once started, a restore still in progress takes it back
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !restoreProgress.isReady()) {
+            publishReadiness();
+        }
+    }
+
     @PostConstruct
     private void startUp() {
         try {
-            startAllThreads();
-            eventSerializer.readEvents(event -> activeTasks.get(random.nextInt(activeTasks.size())).addEvent(event));
+            eventJournal.start();
         } catch (IOException e) {
+            log.warn("Unable to start event journal");
+            log.warn(e.getMessage(), e);
+        }
+        startAllThreads();
+        lastScaleTime = System.currentTimeMillis();
+        restoreThread = new Thread(this::restoreEvents, "event-restore");
+        restoreThread.start();
+    }
+
+    // reading stays on the restore thread, decoding runs on the common fork-join pool
+    private void restoreEvents() {
+        restoreProgress.start();
+        publishReadiness();
+        boolean success = false;
+        try {
+            eventSerializer.readEvents(ForkJoinPool.commonPool(),
+                    ForkJoinPool.getCommonPoolParallelism() * 2,
+                    this::restoreChunk);
+            eventJournal.recover(event -> restoreChunk(List.of(event)));
+            success = true;
+        } catch (IOException | RuntimeException e) {
             log.warn("Unable to restore events from the database");
             log.warn(e.getMessage(), e);
+        } finally {
+            restoreProgress.finish(success);
+            publishReadiness();
         }
+        RestoreStatusOut status = restoreProgress.getStatus();
+        log.info("Restore finished with state {}, {} events restored in {} ms",
+                status.getState(), status.getRestoredEvents(), status.getElapsedTime());
+    }
+
+    // a failed restore keeps refusing traffic, the restore status tells why
+    private void publishReadiness() {
+        synchronized (restoreProgress) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, restoreProgress.isReady() ?
+                    ReadinessState.ACCEPTING_TRAFFIC : ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private void restoreChunk(List<GameEvent> events) {
+        groupByThread(events).forEach(GameEventThread::addEvents);
+        restoreProgress.add(events.size());
+    }
+
+    // events of a retired thread are initialized and journaled already, they are only transferred
+    private void handOver(Collection<GameEvent> events) {
+        groupByThread(events).forEach(GameEventThread::transferEvents);
+    }
+
+    private Map<GameEventThread, List<GameEvent>> groupByThread(Collection<GameEvent> events) {
+        Map<GameEventThread, List<GameEvent>> eventsByThread = new IdentityHashMap<>();
+        GameEventThread vacantThread = null;
+        for (GameEvent event : events) {
+            GameEventThread gameEventThread;
+            if (event.getUniverseId() != null) {
+                gameEventThread = universeRouter.route(event.getUniverseId());
+            } else {
+                if (vacantThread == null) {
+                    vacantThread = getVacantThread();
+                }
+                gameEventThread = vacantThread;
+            }
+            eventsByThread.computeIfAbsent(gameEventThread, t -> new ArrayList<>()).add(event);
+        }
+        return eventsByThread;
     }
 
     private void startAllThreads() {
-        log.info("Starting thread pool of size {}, load factor precision {}", getCorePoolSize(), loadFactorPrecision);
+        log.info("Starting thread pool of size {}, load factor precision {}, work stealing - {}, execution mode - {}",
+                getCorePoolSize(), executorConfig.loadFactorPrecision(), executorConfig.workStealing(),
+                executorConfig.executionMode());
+        if (executorConfig.executionMode() == ExecutionMode.OFFLOADED) {
+            handlerExecutor = HandlerExecutors.create();
+            offloadedExecution = new OffloadedExecution(handlerExecutor,
+                    executorConfig.maxInFlight(), executorConfig.maxInFlightPerUniverse());
+        }
+        // offloaded handlers never hold a game thread, so there is nothing to steal
+        workStealingGroup = executorConfig.workStealing() && offloadedExecution == null ?
+                new WorkStealingGroup(executorConfig.orderedUniverses()) : null;
         for (int i = 0; i < getCorePoolSize(); i++) {
-            GameEventThread gameEventThread = new GameEventThread(new GameEventExecutor(), loadFactorPrecision);
-            activeTasks.add(gameEventThread);
-            execute(gameEventThread);
-            gameEventThread.addEvent(InitStatisticsEvent.builder().id(UUID.randomUUID().toString()).build());
+            GameEventThread gameEventThread = startThread();
+            universeRouter.addThread("game-thread-" + threadIndex++, gameEventThread);
         }
     }
 
+    private GameEventThread startThread() {
+        GameEventThread gameEventThread = GameEventThread.builder().
+                eventExecutor(new GameEventExecutor()).
+                loadFactorPrecision(executorConfig.loadFactorPrecision()).
+                eventScheduler(eventSchedulerSupplier.get()).
+                bufferSize(executorConfig.bufferSize()).
+                eventJournal(eventJournal).
+                workStealingGroup(workStealingGroup).
+                offloadedExecution(offloadedExecution).
+                batchSize(executorConfig.batchSize()).
+                build();
+        if (workStealingGroup != null) {
+            workStealingGroup.register(gameEventThread);
+        }
+        activeTasks.add(gameEventThread);
+        execute(gameEventThread);
+        gameEventThread.addEvent(InitStatisticsEvent.builder().id(UUID.randomUUID().toString()).build());
+        return gameEventThread;
+    }
+
+    private void addThread(double load) {
+        log.info("Load {} is above the high watermark, adding game thread {}", load, activeTasks.size() + 1);
+        setCorePoolSize(getCorePoolSize() + 1);
+        scaledThreads.addLast(startThread());
+    }
+
+    // the core size drops right away, the worker exits once the thread has handed its events over;
+    // the thread leaves the router in its hand-off, so its universes never run on two threads at once
+    private void retireThread(GameEventThread thread, double load) {
+        log.info("Load {} is below the low watermark, retiring game thread {}", load, activeTasks.size());
+        activeTasks.remove(thread);
+        scaledThreads.remove(thread);
+        if (workStealingGroup != null) {
+            workStealingGroup.unregister(thread);
+        }
+        thread.addEvent(ThreadRetirementEvent.
+                builder().
+                id(UUID.randomUUID().toString()).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                handOver(this::handOver).
+                detach(() -> universeRouter.removeThread(thread)).
+                build());
+        setCorePoolSize(getCorePoolSize() - 1);
+    }
+
     @PreDestroy
     private void shutdownAndWait() throws InterruptedException {
         log.info("Shutting down thread pool");
+        synchronized (scalingLock) {
+            stopping = true;
+        }
         try{
-            Stream.Builder<GameEvent> builder = Stream.builder();
+            if (restoreThread != null) {
+                restoreThread.join();
+            }
             for (GameEventThread runnable : activeTasks) {
                 stopThread(runnable);
-                collectEventsFromQueue(builder, runnable);
             }
-            writeEvents(builder.build());
+            // queues are only backed up once every game thread has left its loop, so nothing runs after the snapshot
+            super.shutdown();
+            while (!awaitTermination(1, TimeUnit.SECONDS)) {
+                log.debug("Awaiting all game threads to finish");
+            }
+            // the shared store backup stays the default, so another instance can restore the events;
+            // on opt-in a durable journal already holds every pending event and only its last group commit is flushed
+            if (journalOnlyShutdown && eventJournal.isDurable()) {
+                stopJournal(false);
+            } else {
+                boolean backedUp = writeEvents(activeTasks.stream().flatMap(this::streamEventsFromQueue));
+                stopJournal(backedUp);
+            }
         } catch (InterruptedException e) {
             log.warn("Waiting thread to stop was interrupted");
             log.warn(e.getMessage(), e);
             Thread.currentThread().interrupt();
             throw new WaitingInterruptedException();
         }
-        super.shutdown();
-        while (!awaitTermination(1, TimeUnit.SECONDS)) {
-            log.debug("Awaiting all game threads to finish");
+        if (handlerExecutor != null) {
+            handlerExecutor.shutdown();
         }
     }
 
-    private void collectEventsFromQueue(Stream.Builder<GameEvent> builder, GameEventThread runnable) {
-        Iterator<GameEvent> iterator = runnable.getQueueIterator();
-        while (iterator.hasNext())
-            builder.accept(iterator.next());
+    private Stream<GameEvent> streamEventsFromQueue(GameEventThread runnable) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(runnable.getQueueIterator(), Spliterator.ORDERED), false);
     }
 
-    private void writeEvents(Stream<GameEvent> stream) {
+    private boolean writeEvents(Stream<GameEvent> stream) {
         try {
             eventSerializer.writeEvents(stream.iterator());
+            return true;
         } catch (IOException e) {
             log.warn("Unable to backup queue because of the following reason:");
             log.warn(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void stopJournal(boolean truncate) {
+        try {
+            eventJournal.stop(truncate);
+        } catch (IOException e) {
+            log.warn("Unable to stop event journal because of the following reason:");
+            log.warn(e.getMessage(), e);
         }
     }
 
+    // the universe keeps routing to the source until its hand-off is done, later arrivals are forwarded by the source
+    private void migrateUniverse(String universeId, GameEventThread source, GameEventThread target) {
+        log.info("Migrating universe {} to a less loaded thread", universeId);
+        source.addEvent(UniverseMigrationEvent.
+                builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetThread(target).
+                reroute(() -> universeRouter.assign(universeId, target)).
+                build());
+    }
+
     private void stopThread(GameEventThread runnable) throws InterruptedException {
         log.debug("Stopping queue thread");
         runnable.addEvent(QueueTerminationEvent.
@@ -0,0 +1,34 @@
+package net.alex.game.queue.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public final class HandlerExecutors {
+
+    private HandlerExecutors() {
+    }
+
+    // virtual threads are looked up reflectively while the build still targets Java 17
+    public static ExecutorService create() {
+        try {
+            ExecutorService executorService = (ExecutorService) Executors.class.
+                    getMethod("newVirtualThreadPerTaskExecutor").
+                    invoke(null);
+            log.info("Event handlers run on virtual threads");
+            return executorService;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            log.info("Virtual threads are not available, event handlers run on a cached thread pool");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "event-handler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
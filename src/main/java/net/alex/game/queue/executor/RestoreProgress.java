@@ -0,0 +1,46 @@
+package net.alex.game.queue.executor;
+
+import net.alex.game.queue.model.RestoreState;
+import net.alex.game.queue.model.out.RestoreStatusOut;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class RestoreProgress {
+    private final LongAdder restoredEvents = new LongAdder();
+
+    private volatile RestoreState state = RestoreState.PENDING;
+    private volatile long startTime;
+    private volatile long finishTime;
+
+    public void start() {
+        startTime = System.currentTimeMillis();
+        state = RestoreState.RESTORING;
+    }
+
+    public void add(long events) {
+        restoredEvents.add(events);
+    }
+
+    public void finish(boolean success) {
+        finishTime = System.currentTimeMillis();
+        state = success ? RestoreState.READY : RestoreState.FAILED;
+    }
+
+    public boolean isReady() {
+        return state == RestoreState.READY;
+    }
+
+    public RestoreStatusOut getStatus() {
+        RestoreState currentState = state;
+        long elapsedTime = switch (currentState) {
+            case PENDING -> 0;
+            case RESTORING -> System.currentTimeMillis() - startTime;
+            case READY, FAILED -> finishTime - startTime;
+        };
+        return RestoreStatusOut.builder().
+                state(currentState).
+                restoredEvents(restoredEvents.sum()).
+                elapsedTime(elapsedTime).
+                build();
+    }
+}
@@ -0,0 +1,57 @@
+package net.alex.game.queue.executor;
+
+import net.alex.game.queue.thread.GameEventThread;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class UniverseRouter {
+    private static final int VIRTUAL_NODES = 64;
+
+    private volatile NavigableMap<Integer, GameEventThread> ring = new TreeMap<>();
+    private final Map<String, GameEventThread> assignments = new ConcurrentHashMap<>();
+
+    public synchronized void addThread(String nodeId, GameEventThread thread) {
+        NavigableMap<Integer, GameEventThread> updatedRing = new TreeMap<>(ring);
+        for (int i = 0; i < VIRTUAL_NODES; i++) {
+            updatedRing.put(hash(nodeId + "#" + i), thread);
+        }
+        ring = updatedRing;
+    }
+
+    public synchronized void removeThread(GameEventThread thread) {
+        NavigableMap<Integer, GameEventThread> updatedRing = new TreeMap<>(ring);
+        updatedRing.values().removeIf(t -> t == thread);
+        ring = updatedRing;
+        assignments.values().removeIf(t -> t == thread);
+    }
+
+    public GameEventThread route(String universeId) {
+        GameEventThread thread = assignments.get(universeId);
+        if (thread != null) {
+            return thread;
+        }
+        NavigableMap<Integer, GameEventThread> currentRing = ring;
+        if (currentRing.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Integer, GameEventThread> entry = currentRing.ceilingEntry(hash(universeId));
+        return (entry != null ? entry : currentRing.firstEntry()).getValue();
+    }
+
+    public void assign(String universeId, GameEventThread thread) {
+        assignments.put(universeId, thread);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,8 @@
+package net.alex.game.queue.model;
+
+public enum RestoreState {
+    PENDING,
+    RESTORING,
+    READY,
+    FAILED
+}
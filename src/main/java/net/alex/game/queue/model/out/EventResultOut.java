@@ -0,0 +1,13 @@
+package net.alex.game.queue.model.out;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventResultOut {
+    private int index;
+    private String id;
+    private boolean accepted;
+    private String reason;
+}
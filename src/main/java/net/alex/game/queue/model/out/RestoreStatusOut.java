@@ -0,0 +1,13 @@
+package net.alex.game.queue.model.out;
+
+import lombok.Builder;
+import lombok.Data;
+import net.alex.game.queue.model.RestoreState;
+
+@Data
+@Builder
+public class RestoreStatusOut {
+    private RestoreState state;
+    private long restoredEvents;
+    private long elapsedTime;
+}
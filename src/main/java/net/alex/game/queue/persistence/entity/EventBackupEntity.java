@@ -24,12 +24,19 @@ public class EventBackupEntity implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    private Long id;
 
     @NotNull
-    @Size(max = 64000)
-    @Column(name = "event_json")
-    private String eventJson;
+    @Size(max = 50)
+    @Column(name = "universe_id")
+    private String universeId;
+
+    @Column(name = "fire_at")
+    private long fireAt;
+
+    @NotNull
+    @Column(name = "event_data")
+    private byte[] eventData;
 
     @Override
     public boolean equals(Object o) {
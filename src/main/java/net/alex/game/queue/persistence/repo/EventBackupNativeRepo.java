@@ -5,48 +5,190 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
-import net.alex.game.queue.config.ExecutorConfig;
 import net.alex.game.queue.persistence.entity.EventBackupEntity;
+import net.alex.game.queue.serialize.EventRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 @Repository
 public class EventBackupNativeRepo {
+    private static final String COPY_SQL = "COPY events_backup (universe_id, fire_at, event_data) FROM STDIN";
+    private static final String INSERT_SQL = "INSERT INTO events_backup (universe_id, fire_at, event_data) VALUES (?, ?, ?)";
+    private static final String DRAIN_SQL = "DELETE FROM events_backup WHERE (universe_id, id) IN (" +
+            "SELECT universe_id, id FROM events_backup ORDER BY fire_at LIMIT :num FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *";
+    private static final String SELECT_SQL = "SELECT * FROM events_backup ORDER BY fire_at LIMIT :num FOR UPDATE";
+    private static final String DELETE_SQL = "DELETE FROM events_backup WHERE id IN (:ids)";
+    private static final String DELETE_UNIVERSE_SQL = "DELETE FROM events_backup WHERE universe_id = :universeId";
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final DataSource dataSource;
 
     @PersistenceContext
     private EntityManager entityManager;
+    private boolean postgres;
 
-    private final ExecutorConfig executorConfig;
+    public EventBackupNativeRepo(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
 
-    public EventBackupNativeRepo(ExecutorConfig executorConfig) {
-        this.executorConfig = executorConfig;
+    // rows locked by a concurrent drain are skipped instead of waited for, so several instances can drain at once;
+    // the earliest events come first so they are rescheduled before later ones;
+    // databases without DELETE ... RETURNING select and delete the batch in two statements
+    @Transactional
+    public List<EventBackupEntity> readAndDelete(int limit) {
+        Query query = entityManager.createNativeQuery(postgres ? DRAIN_SQL : SELECT_SQL, EventBackupEntity.class);
+        List<?> queryResult = query.setParameter("num", limit).getResultList();
+        if (!postgres && !queryResult.isEmpty()) {
+            entityManager.createNativeQuery(DELETE_SQL).
+                    setParameter("ids", queryResult.stream().map(e -> ((EventBackupEntity) e).getId()).toList()).
+                    executeUpdate();
+        }
+        List<EventBackupEntity> result = new ArrayList<>(queryResult.size());
+        for (Object object : queryResult) {
+            EventBackupEntity entity = (EventBackupEntity) object;
+            entityManager.detach(entity);
+            result.add(entity);
+        }
+        return result;
     }
 
+    // the universe id is the partition key, so only one partition is scanned
     @Transactional
-    public List<EventBackupEntity> readAndDeleteWithLock() {
+    public int deleteUniverse(String universeId) {
+        return entityManager.createNativeQuery(DELETE_UNIVERSE_SQL).
+                setParameter("universeId", universeId).
+                executeUpdate();
+    }
+
+    // streams the whole chunk through COPY on PostgreSQL, falls back to a JDBC batch on other databases
+    public void writeAll(List<EventRecord> eventRecords) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
         try {
-            List<EventBackupEntity> result = new ArrayList<>();
-            entityManager.createNativeQuery("BEGIN WORK; LOCK TABLE events_backup IN ACCESS EXCLUSIVE MODE").executeUpdate();
-            Query query = entityManager.createNativeQuery("SELECT * FROM events_backup LIMIT :num", EventBackupEntity.class);
-            List<?> queryResult = query.setParameter("num", executorConfig.poolSize()).getResultList();
-            for (Object object : queryResult) {
-                EventBackupEntity entity = (EventBackupEntity)object;
-                entityManager.createNativeQuery("DELETE FROM events_backup WHERE id = :id").
-                        setParameter("id", entity.getId()).executeUpdate();
-                result.add(entity);
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copyIn(connection.unwrap(PGConnection.class), eventRecords);
+            } else {
+                insertBatch(connection, eventRecords);
             }
-            entityManager.flush();
-            return result;
         } finally {
-            entityManager.createNativeQuery("COMMIT WORK").executeUpdate();
+            DataSourceUtils.releaseConnection(connection, dataSource);
         }
     }
 
     @PostConstruct
-    public void postConstruct() {
+    public void postConstruct() throws SQLException {
         Objects.requireNonNull(entityManager);
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        }
+    }
+
+    private static void copyIn(PGConnection connection, List<EventRecord> eventRecords) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            CopyLine line = new CopyLine();
+            for (EventRecord eventRecord : eventRecords) {
+                line.encode(eventRecord);
+                copyIn.writeToCopy(line.buffer, 0, line.length);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void insertBatch(Connection connection, List<EventRecord> eventRecords) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (EventRecord eventRecord : eventRecords) {
+                statement.setString(1, universeId(eventRecord));
+                statement.setLong(2, eventRecord.fireAt());
+                statement.setBytes(3, eventRecord.data());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // universe id is the partition key, events without a universe share the empty one
+    private static String universeId(EventRecord eventRecord) {
+        return eventRecord.universeId() != null ? eventRecord.universeId() : "";
+    }
+
+    // the line buffer is reused across the rows of a chunk
+    static final class CopyLine {
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        // text format row: escaped universe id, fire time and hex encoded bytea separated by tabs
+        void encode(EventRecord eventRecord) {
+            length = 0;
+            appendText(universeId(eventRecord));
+            append('\t');
+            appendText(Long.toString(eventRecord.fireAt()));
+            append('\t');
+            appendHex(eventRecord.data());
+            append('\n');
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void append(char c) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) c;
+        }
+
+        private void appendText(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(bytes.length * 2);
+            for (byte b : bytes) {
+                byte escaped = switch (b) {
+                    case '\\' -> '\\';
+                    case '\t' -> 't';
+                    case '\n' -> 'n';
+                    case '\r' -> 'r';
+                    default -> 0;
+                };
+                if (escaped != 0) {
+                    buffer[length++] = '\\';
+                    buffer[length++] = escaped;
+                } else {
+                    buffer[length++] = b;
+                }
+            }
+        }
+
+        // bytea hex input is \x followed by digits, the backslash itself is escaped for the text format
+        private void appendHex(byte[] data) {
+            ensureCapacity(3 + data.length * 2);
+            buffer[length++] = '\\';
+            buffer[length++] = '\\';
+            buffer[length++] = 'x';
+            for (byte b : data) {
+                buffer[length++] = HEX_DIGITS[(b >> 4) & 0x0F];
+                buffer[length++] = HEX_DIGITS[b & 0x0F];
+            }
+        }
+
+        private void ensureCapacity(int size) {
+            if (length + size > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + size));
+            }
+        }
     }
 }
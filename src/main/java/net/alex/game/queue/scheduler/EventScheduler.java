@@ -0,0 +1,63 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+public interface EventScheduler {
+    // the returned handle cancels the event in place, without searching the scheduler
+    ScheduledEvent offer(GameEvent event);
+
+    List<ScheduledEvent> offerAll(Collection<GameEvent> events);
+
+    GameEvent pollExpired();
+
+    // takes the head only if it is due and accepted by the filter, as one atomic step
+    GameEvent pollExpired(Predicate<GameEvent> filter);
+
+    GameEvent poll();
+
+    // takes the head regardless of its delay if it is accepted by the filter, as one atomic step
+    GameEvent poll(Predicate<GameEvent> filter);
+
+    // fast mode drain, takes heads regardless of their delay while the filter accepts them
+    default int drainTo(Collection<GameEvent> target, int maxEvents, Predicate<GameEvent> filter) {
+        int count = 0;
+        GameEvent event;
+        while (count < maxEvents && (event = poll(filter)) != null) {
+            target.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    long nextDelay(TimeUnit timeUnit);
+
+    // deadline of the earliest pending event on the scheduler clock in milliseconds, Long.MAX_VALUE when empty
+    long peekDeadline();
+
+    // shifts every pending event at once by moving the scheduler clock, events leave it in wall clock time
+    void changeDelay(long diff, TimeUnit timeUnit);
+
+    List<GameEvent> remove(Predicate<GameEvent> filter);
+
+    // takes the entry out in place, its event is returned in wall clock time or null if it has left already
+    GameEvent remove(ScheduledEvent scheduled);
+
+    // schedulers without universe clocks run every universe in real time
+    default boolean changeSpeed(String universeId, double speed) {
+        return false;
+    }
+
+    default double getSpeed(String universeId) {
+        return 1;
+    }
+
+    boolean isEmpty();
+
+    Iterator<GameEvent> iterator();
+}
@@ -0,0 +1,243 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// a heap ordered by deadline, the lock makes checking and taking the head one step so no remove(Object) is needed
+public class HeapEventScheduler implements EventScheduler {
+
+    // entries due at the same time leave in the order they were offered, the heap alone is not stable
+    private static final Comparator<Entry> BY_DEADLINE = Comparator.<Entry>comparingLong(entry -> entry.deadline).
+            thenComparingLong(entry -> entry.sequence);
+
+    private final VirtualClock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private final PriorityQueue<Entry> eventQueue = new PriorityQueue<>(BY_DEADLINE);
+
+    public HeapEventScheduler() {
+        this(new VirtualClock());
+    }
+
+    public HeapEventScheduler(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public ScheduledEvent offer(GameEvent event) {
+        Entry entry = new Entry(event, clock.deadline(event), sequence.getAndIncrement());
+        lock.lock();
+        try {
+            eventQueue.offer(entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    // events offered in start time order never sift up the heap
+    @Override
+    public List<ScheduledEvent> offerAll(Collection<GameEvent> events) {
+        List<Entry> sorted = new ArrayList<>(events.size());
+        for (GameEvent event : events) {
+            sorted.add(new Entry(event, clock.deadline(event), sequence.getAndIncrement()));
+        }
+        sorted.sort(BY_DEADLINE);
+        lock.lock();
+        try {
+            eventQueue.addAll(sorted);
+        } finally {
+            lock.unlock();
+        }
+        return Collections.unmodifiableList(sorted);
+    }
+
+    @Override
+    public GameEvent pollExpired() {
+        return pollExpired(e -> true);
+    }
+
+    @Override
+    public GameEvent pollExpired(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = head()) != null && entry.deadline <= clock.millis() && filter.test(release(entry))) {
+                eventQueue.poll();
+                if (entry.take()) {
+                    return entry.event;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent poll() {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = eventQueue.poll()) != null) {
+                if (entry.take()) {
+                    return release(entry);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent poll(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = head()) != null && filter.test(release(entry))) {
+                eventQueue.poll();
+                if (entry.take()) {
+                    return entry.event;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<GameEvent> target, int maxEvents, Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            int count = 0;
+            Entry entry;
+            while (count < maxEvents && (entry = head()) != null && filter.test(release(entry))) {
+                eventQueue.poll();
+                if (entry.take()) {
+                    target.add(entry.event);
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long nextDelay(TimeUnit timeUnit) {
+        lock.lock();
+        try {
+            Entry entry = head();
+            return entry != null ? timeUnit.convert(entry.deadline - clock.millis(), TimeUnit.MILLISECONDS) :
+                    Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long peekDeadline() {
+        lock.lock();
+        try {
+            Entry entry = head();
+            return entry != null ? entry.deadline : Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changeDelay(long diff, TimeUnit timeUnit) {
+        clock.shift(diff, timeUnit);
+    }
+
+    @Override
+    public List<GameEvent> remove(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            List<GameEvent> result = new ArrayList<>();
+            Iterator<Entry> iterator = eventQueue.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!entry.isPending()) {
+                    iterator.remove();
+                } else if (filter.test(release(entry)) && entry.take()) {
+                    iterator.remove();
+                    result.add(entry.event);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent remove(ScheduledEvent scheduled) {
+        lock.lock();
+        try {
+            Entry entry = (Entry) scheduled;
+            return entry.take() ? release(entry) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return head() == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<GameEvent> iterator() {
+        lock.lock();
+        try {
+            List<GameEvent> events = new ArrayList<>(eventQueue.size());
+            for (Entry entry : eventQueue) {
+                if (entry.isPending()) {
+                    events.add(release(entry));
+                }
+            }
+            return Collections.unmodifiableList(events).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // tombstones are dropped once they reach the head
+    private Entry head() {
+        Entry entry;
+        while ((entry = eventQueue.peek()) != null && !entry.isPending()) {
+            eventQueue.poll();
+        }
+        return entry;
+    }
+
+    private GameEvent release(Entry entry) {
+        return clock.toWallTime(entry.event, entry.deadline);
+    }
+
+    private static class Entry extends ScheduledEvent {
+        private final long deadline;
+        private final long sequence;
+
+        private Entry(GameEvent event, long deadline, long sequence) {
+            super(event);
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+    }
+}
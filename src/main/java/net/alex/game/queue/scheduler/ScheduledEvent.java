@@ -0,0 +1,39 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+// handle of a scheduler entry, it leaves the scheduler either taken or cancelled, whichever claims it first
+public class ScheduledEvent {
+    private static final AtomicIntegerFieldUpdater<ScheduledEvent> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(ScheduledEvent.class, "state");
+    private static final int PENDING = 0;
+    private static final int TAKEN = 1;
+    private static final int CANCELLED = 2;
+
+    protected final GameEvent event;
+    private volatile int state = PENDING;
+
+    protected ScheduledEvent(GameEvent event) {
+        this.event = event;
+    }
+
+    public GameEvent getEvent() {
+        return event;
+    }
+
+    // the entry stays in the scheduler as a tombstone and is dropped once it reaches the head
+    public boolean cancel() {
+        return STATE.compareAndSet(this, PENDING, CANCELLED);
+    }
+
+    // taken and cancelled entries left in place are tombstones alike
+    public boolean isPending() {
+        return state == PENDING;
+    }
+
+    boolean take() {
+        return STATE.compareAndSet(this, PENDING, TAKEN);
+    }
+}
@@ -0,0 +1,6 @@
+package net.alex.game.queue.scheduler;
+
+public enum SchedulerType {
+    HEAP,
+    TIMING_WHEEL
+}
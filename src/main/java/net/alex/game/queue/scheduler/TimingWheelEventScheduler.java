@@ -0,0 +1,509 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class TimingWheelEventScheduler implements EventScheduler {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+    // a tick spans several deadlines, so ready entries are kept in deadline order and then in offer order
+    private static final Comparator<Entry> BY_DEADLINE = Comparator.<Entry>comparingLong(entry -> entry.deadline).
+            thenComparingLong(entry -> entry.sequence);
+
+    private final long tickDuration;
+    private final VirtualClock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // level N slot covers 64^N ticks, occupied bitmask marks non-empty slots of every level
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final long[] occupied = new long[LEVELS];
+    private final Bucket ready = new Bucket();
+
+    private long currentTick;
+    private int size;
+
+    public TimingWheelEventScheduler(long tickDuration) {
+        this(tickDuration, new VirtualClock());
+    }
+
+    public TimingWheelEventScheduler(long tickDuration, VirtualClock clock) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickDuration = tickDuration;
+        this.clock = clock;
+        this.currentTick = currentTimeTick();
+    }
+
+    @Override
+    public ScheduledEvent offer(GameEvent event) {
+        Entry entry = new Entry(event, clock.deadline(event), sequence.getAndIncrement());
+        lock.lock();
+        try {
+            insert(entry);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    // entries inserted in deadline order are appended to the tail of the ready bucket
+    @Override
+    public List<ScheduledEvent> offerAll(Collection<GameEvent> events) {
+        List<Entry> entries = new ArrayList<>(events.size());
+        for (GameEvent event : events) {
+            entries.add(new Entry(event, clock.deadline(event), sequence.getAndIncrement()));
+        }
+        entries.sort(BY_DEADLINE);
+        lock.lock();
+        try {
+            entries.forEach(this::insert);
+            size += entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    @Override
+    public GameEvent pollExpired() {
+        lock.lock();
+        try {
+            advanceTo(currentTimeTick());
+            Entry entry;
+            while ((entry = readyHead()) != null) {
+                ready.poll();
+                size--;
+                if (entry.take()) {
+                    return release(entry);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent pollExpired(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            advanceTo(currentTimeTick());
+            Entry entry;
+            while ((entry = readyHead()) != null && filter.test(release(entry))) {
+                ready.poll();
+                size--;
+                if (entry.take()) {
+                    return entry.event;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent poll() {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = nextHead()) != null) {
+                ready.poll();
+                size--;
+                if (entry.take()) {
+                    return release(entry);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent poll(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = nextHead()) != null && filter.test(release(entry))) {
+                ready.poll();
+                size--;
+                if (entry.take()) {
+                    return entry.event;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<GameEvent> target, int maxEvents, Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            int count = 0;
+            Entry entry;
+            while (count < maxEvents && (entry = nextHead()) != null && filter.test(release(entry))) {
+                ready.poll();
+                size--;
+                if (entry.take()) {
+                    target.add(entry.event);
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long nextDelay(TimeUnit timeUnit) {
+        lock.lock();
+        try {
+            if (readyHead() != null) {
+                return 0;
+            }
+            int level = lowestOccupiedLevel();
+            if (level < 0) {
+                return Long.MAX_VALUE;
+            }
+            long delay = nextTick(level) * tickDuration - clock.millis();
+            return timeUnit.convert(Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // nextDelay only finds the start of the next occupied slot, the deadline is looked up in the slot itself
+    @Override
+    public long peekDeadline() {
+        lock.lock();
+        try {
+            Entry entry = readyHead();
+            if (entry != null) {
+                return entry.deadline;
+            }
+            for (int level = 0; level < LEVELS; level++) {
+                for (long slots = occupied[level]; slots != 0; slots &= slots - 1) {
+                    long deadline = wheels[level][Long.numberOfTrailingZeros(slots)].minDeadline();
+                    if (deadline != Long.MAX_VALUE) {
+                        return deadline;
+                    }
+                }
+            }
+            return Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changeDelay(long diff, TimeUnit timeUnit) {
+        lock.lock();
+        try {
+            clock.shift(diff, timeUnit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<GameEvent> remove(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            List<GameEvent> result = new ArrayList<>();
+            // tombstones are dropped along the way, only the taken events are returned
+            Predicate<Entry> entryFilter = entry -> {
+                if (!entry.isPending()) {
+                    return true;
+                }
+                if (filter.test(release(entry)) && entry.take()) {
+                    result.add(entry.event);
+                    return true;
+                }
+                return false;
+            };
+            Consumer<Entry> removed = entry -> size--;
+            ready.removeIf(entryFilter, removed);
+            for (int level = 0; level < LEVELS; level++) {
+                for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                    Bucket bucket = wheels[level][slot];
+                    if (bucket != null && bucket.removeIf(entryFilter, removed) && bucket.head == null) {
+                        occupied[level] &= ~(1L << slot);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent remove(ScheduledEvent scheduled) {
+        lock.lock();
+        try {
+            Entry entry = (Entry) scheduled;
+            return entry.take() ? release(entry) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return size == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<GameEvent> iterator() {
+        lock.lock();
+        try {
+            List<GameEvent> events = new ArrayList<>(size);
+            Consumer<Entry> pending = entry -> {
+                if (entry.isPending()) {
+                    events.add(release(entry));
+                }
+            };
+            ready.forEach(pending);
+            for (Bucket[] wheel : wheels) {
+                for (Bucket bucket : wheel) {
+                    if (bucket != null) {
+                        bucket.forEach(pending);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(events).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long currentTimeTick() {
+        return clock.millis() / tickDuration;
+    }
+
+    // tombstones are dropped once they reach the head of the ready bucket
+    private Entry readyHead() {
+        Entry entry;
+        while ((entry = ready.head) != null && !entry.isPending()) {
+            ready.poll();
+            size--;
+        }
+        return entry;
+    }
+
+    // fast mode jumps to the next occupied slot until a pending entry is ready
+    private Entry nextHead() {
+        Entry entry;
+        while ((entry = readyHead()) == null && size > 0) {
+            int level = lowestOccupiedLevel();
+            currentTick = nextTick(level);
+            cascade(level);
+        }
+        return entry;
+    }
+
+    private GameEvent release(Entry entry) {
+        return clock.toWallTime(entry.event, entry.deadline);
+    }
+
+    private void insert(Entry entry) {
+        entry.tick = Math.floorDiv(entry.deadline + tickDuration - 1, tickDuration);
+        if (entry.tick <= currentTick) {
+            ready.addOrdered(entry);
+        } else {
+            int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.tick ^ currentTick);
+            int level = highestBit / WHEEL_BITS;
+            int slot = (int) (entry.tick >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+            Bucket bucket = wheels[level][slot];
+            if (bucket == null) {
+                bucket = new Bucket();
+                wheels[level][slot] = bucket;
+            }
+            bucket.add(entry);
+            occupied[level] |= 1L << slot;
+        }
+    }
+
+    private void advanceTo(long targetTick) {
+        int level = lowestOccupiedLevel();
+        while (level >= 0) {
+            long next = nextTick(level);
+            if (next > targetTick) {
+                break;
+            }
+            currentTick = next;
+            cascade(level);
+            level = lowestOccupiedLevel();
+        }
+        if (targetTick > currentTick) {
+            currentTick = targetTick;
+        }
+    }
+
+    private void cascade(int level) {
+        int slot = (int) (currentTick >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+        Bucket bucket = wheels[level][slot];
+        occupied[level] &= ~(1L << slot);
+        Entry entry = bucket.clear();
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.next = null;
+            entry.prev = null;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private int lowestOccupiedLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupied[level] != 0) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    private long nextTick(int level) {
+        int shift = level * WHEEL_BITS;
+        long slot = Long.numberOfTrailingZeros(occupied[level]);
+        long high = level + 1 < LEVELS ? (currentTick >>> (shift + WHEEL_BITS)) << (shift + WHEEL_BITS) : 0;
+        return high | (slot << shift);
+    }
+
+    private static class Entry extends ScheduledEvent {
+        private final long deadline;
+        private final long sequence;
+        private long tick;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(GameEvent event, long deadline, long sequence) {
+            super(event);
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        private void add(Entry entry) {
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void addOrdered(Entry entry) {
+            Entry after = tail;
+            while (after != null && BY_DEADLINE.compare(after, entry) > 0) {
+                after = after.prev;
+            }
+            if (after == tail) {
+                add(entry);
+            } else {
+                entry.prev = after;
+                entry.next = after == null ? head : after.next;
+                entry.next.prev = entry;
+                if (after == null) {
+                    head = entry;
+                } else {
+                    after.next = entry;
+                }
+            }
+        }
+
+        private Entry poll() {
+            Entry entry = head;
+            if (entry != null) {
+                head = entry.next;
+                if (head == null) {
+                    tail = null;
+                } else {
+                    head.prev = null;
+                }
+                entry.next = null;
+            }
+            return entry;
+        }
+
+        private boolean removeIf(Predicate<Entry> filter, Consumer<Entry> removed) {
+            boolean result = false;
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (filter.test(entry)) {
+                    unlink(entry);
+                    removed.accept(entry);
+                    result = true;
+                }
+                entry = next;
+            }
+            return result;
+        }
+
+        private void unlink(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        private long minDeadline() {
+            long result = Long.MAX_VALUE;
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                if (entry.isPending()) {
+                    result = Math.min(result, entry.deadline);
+                }
+            }
+            return result;
+        }
+
+        private Entry clear() {
+            Entry entry = head;
+            head = null;
+            tail = null;
+            return entry;
+        }
+
+        private void forEach(Consumer<Entry> consumer) {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                consumer.accept(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.SystemEvent;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// every universe is scheduled against its own clock, universes are ordered by the thread clock time of their head
+public class UniverseEventScheduler implements EventScheduler {
+    private static final long MAX_DUE_DELAY = Long.MAX_VALUE / 4;
+    private static final Comparator<UniverseQueue> BY_DUE = Comparator.
+            <UniverseQueue>comparingLong(queue -> queue.due).
+            thenComparingLong(queue -> queue.sequence);
+
+    private final Function<VirtualClock, EventScheduler> schedulerFactory;
+    private final VirtualClock clock = new VirtualClock();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // system events and events without a universe run on the thread clock
+    private final EventScheduler sharedScheduler;
+    private final Map<String, UniverseQueue> universes = new HashMap<>();
+    private final NavigableSet<UniverseQueue> dueOrder = new TreeSet<>(BY_DUE);
+    private long sequence;
+
+    public UniverseEventScheduler(Function<VirtualClock, EventScheduler> schedulerFactory) {
+        this.schedulerFactory = schedulerFactory;
+        this.sharedScheduler = schedulerFactory.apply(clock);
+    }
+
+    @Override
+    public ScheduledEvent offer(GameEvent event) {
+        lock.lock();
+        try {
+            UniverseQueue queue = queueOf(event);
+            if (queue == null) {
+                return sharedScheduler.offer(event);
+            }
+            ScheduledEvent scheduled = queue.scheduler.offer(event);
+            reindex(queue);
+            return scheduled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ScheduledEvent> offerAll(Collection<GameEvent> events) {
+        lock.lock();
+        try {
+            List<ScheduledEvent> result = new ArrayList<>(events.size());
+            List<GameEvent> shared = new ArrayList<>();
+            Map<UniverseQueue, List<GameEvent>> byUniverse = new LinkedHashMap<>();
+            for (GameEvent event : events) {
+                UniverseQueue queue = queueOf(event);
+                if (queue == null) {
+                    shared.add(event);
+                } else {
+                    byUniverse.computeIfAbsent(queue, k -> new ArrayList<>()).add(event);
+                }
+            }
+            if (!shared.isEmpty()) {
+                result.addAll(sharedScheduler.offerAll(shared));
+            }
+            byUniverse.forEach((queue, universeEvents) -> {
+                result.addAll(queue.scheduler.offerAll(universeEvents));
+                reindex(queue);
+            });
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent pollExpired() {
+        return pollExpired(null);
+    }
+
+    // the head of the shared scheduler and of every due universe is offered to the filter
+    @Override
+    public GameEvent pollExpired(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            GameEvent event = filter != null ? sharedScheduler.pollExpired(filter) : sharedScheduler.pollExpired();
+            if (event != null) {
+                return event;
+            }
+            long now = clock.millis();
+            List<UniverseQueue> stale = new ArrayList<>();
+            try {
+                for (UniverseQueue queue : dueOrder) {
+                    if (queue.due > now) {
+                        break;
+                    }
+                    event = filter != null ? queue.scheduler.pollExpired(filter) : queue.scheduler.pollExpired();
+                    if (event != null) {
+                        stale.add(queue);
+                        return event;
+                    }
+                    if (queue.scheduler.nextDelay(TimeUnit.NANOSECONDS) > 0) {
+                        stale.add(queue);
+                    }
+                }
+                return null;
+            } finally {
+                stale.forEach(this::reindex);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public GameEvent poll() {
+        return poll(null);
+    }
+
+    // fast mode takes the earliest head on the thread clock, paused universes stay where they are
+    @Override
+    public GameEvent poll(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            // a scheduler holding cancelled events only comes up empty, the next earliest one is tried then
+            for (;;) {
+                UniverseQueue queue = dueOrder.isEmpty() ? null : dueOrder.first();
+                long sharedDeadline = sharedScheduler.peekDeadline();
+                if (queue == null || sharedDeadline != Long.MAX_VALUE && sharedDeadline <= queue.due) {
+                    GameEvent event = filter != null ? sharedScheduler.poll(filter) : sharedScheduler.poll();
+                    if (event != null || queue == null || !sharedScheduler.isEmpty()) {
+                        return event;
+                    }
+                    continue;
+                }
+                GameEvent event = filter != null ? queue.scheduler.poll(filter) : queue.scheduler.poll();
+                reindex(queue);
+                if (event != null || queue.due != Long.MAX_VALUE) {
+                    return event;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<GameEvent> target, int maxEvents, Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            int count = 0;
+            GameEvent event;
+            while (count < maxEvents && (event = poll(filter)) != null) {
+                target.add(event);
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long nextDelay(TimeUnit timeUnit) {
+        lock.lock();
+        try {
+            long delay = sharedScheduler.nextDelay(timeUnit);
+            if (!dueOrder.isEmpty()) {
+                long due = Math.max(dueOrder.first().due - clock.millis(), 0);
+                delay = Math.min(delay, timeUnit.convert(due, TimeUnit.MILLISECONDS));
+            }
+            return delay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long peekDeadline() {
+        lock.lock();
+        try {
+            long deadline = sharedScheduler.peekDeadline();
+            return dueOrder.isEmpty() ? deadline : Math.min(deadline, dueOrder.first().due);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // universe clocks run off the thread clock, so shifting it moves every universe with it
+    @Override
+    public void changeDelay(long diff, TimeUnit timeUnit) {
+        lock.lock();
+        try {
+            clock.shift(diff, timeUnit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<GameEvent> remove(Predicate<GameEvent> filter) {
+        lock.lock();
+        try {
+            List<GameEvent> result = new ArrayList<>(sharedScheduler.remove(filter));
+            for (UniverseQueue queue : new ArrayList<>(universes.values())) {
+                List<GameEvent> removed = queue.scheduler.remove(filter);
+                if (!removed.isEmpty()) {
+                    result.addAll(removed);
+                    reindex(queue);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the universe head may be left as a tombstone, it is dropped once the universe is due
+    @Override
+    public GameEvent remove(ScheduledEvent scheduled) {
+        lock.lock();
+        try {
+            GameEvent event = scheduled.getEvent();
+            if (event instanceof SystemEvent || event.getUniverseId() == null) {
+                return sharedScheduler.remove(scheduled);
+            }
+            UniverseQueue queue = universes.get(event.getUniverseId());
+            return queue != null ? queue.scheduler.remove(scheduled) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // only the universe head is re-keyed, its pending events stay where they are on the universe clock
+    @Override
+    public boolean changeSpeed(String universeId, double speed) {
+        lock.lock();
+        try {
+            UniverseQueue queue = universes.get(universeId);
+            if (queue == null) {
+                if (speed == 1) {
+                    return true;
+                }
+                queue = createQueue(universeId);
+            }
+            queue.clock.setSpeed(speed);
+            reindex(queue);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public double getSpeed(String universeId) {
+        lock.lock();
+        try {
+            UniverseQueue queue = universes.get(universeId);
+            return queue != null ? queue.clock.getSpeed() : 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            if (!sharedScheduler.isEmpty()) {
+                return false;
+            }
+            for (UniverseQueue queue : universes.values()) {
+                if (!queue.scheduler.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<GameEvent> iterator() {
+        lock.lock();
+        try {
+            List<GameEvent> events = new ArrayList<>();
+            sharedScheduler.iterator().forEachRemaining(events::add);
+            universes.values().forEach(queue -> queue.scheduler.iterator().forEachRemaining(events::add));
+            return Collections.unmodifiableList(events).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UniverseQueue queueOf(GameEvent event) {
+        if (event instanceof SystemEvent || event.getUniverseId() == null) {
+            return null;
+        }
+        UniverseQueue queue = universes.get(event.getUniverseId());
+        return queue != null ? queue : createQueue(event.getUniverseId());
+    }
+
+    private UniverseQueue createQueue(String universeId) {
+        VirtualClock universeClock = new VirtualClock(clock);
+        UniverseQueue queue = new UniverseQueue(universeId, universeClock, schedulerFactory.apply(universeClock),
+                sequence++);
+        universes.put(universeId, queue);
+        return queue;
+    }
+
+    // a universe is keyed on the deadline of its head, an empty universe running in real time carries no state
+    // worth keeping
+    private void reindex(UniverseQueue queue) {
+        dueOrder.remove(queue);
+        long deadline = queue.scheduler.peekDeadline();
+        double speed = queue.clock.getSpeed();
+        if (deadline == Long.MAX_VALUE) {
+            queue.due = Long.MAX_VALUE;
+            if (speed == 1) {
+                universes.remove(queue.universeId);
+            }
+        } else if (speed == 0) {
+            queue.due = Long.MAX_VALUE;
+        } else {
+            long delay = deadline - queue.clock.millis();
+            queue.due = clock.millis() + (long) Math.min(Math.ceil(delay / speed), MAX_DUE_DELAY);
+            dueOrder.add(queue);
+        }
+    }
+
+    private static class UniverseQueue {
+        private final String universeId;
+        private final VirtualClock clock;
+        private final EventScheduler scheduler;
+        private final long sequence;
+        private long due = Long.MAX_VALUE;
+
+        private UniverseQueue(String universeId, VirtualClock clock, EventScheduler scheduler, long sequence) {
+            this.universeId = universeId;
+            this.clock = clock;
+            this.scheduler = scheduler;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.concurrent.TimeUnit;
+
+// time base of a scheduler, a fast mode exit moves it forward instead of rewriting every pending event,
+// a universe clock runs off the thread clock at its own speed
+public class VirtualClock {
+    private final VirtualClock source;
+    private volatile State state = new State(0, 0, 1);
+
+    public VirtualClock() {
+        this(null);
+    }
+
+    public VirtualClock(VirtualClock source) {
+        this.source = source;
+    }
+
+    public long millis() {
+        return millisAt(System.currentTimeMillis());
+    }
+
+    public double getSpeed() {
+        return state.speed();
+    }
+
+    // the clock is re-anchored at its current time, so pending deadlines keep their place on it
+    public void setSpeed(double speed) {
+        if (!(speed >= 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Clock speed must be a finite non-negative number");
+        }
+        long sourceTime = sourceMillisAt(System.currentTimeMillis());
+        state = new State(state.at(sourceTime), sourceTime, speed);
+    }
+
+    // only the owner thread shifts the clock
+    void shift(long diff, TimeUnit timeUnit) {
+        State current = state;
+        state = new State(current.base() - timeUnit.toMillis(diff), current.anchor(), current.speed());
+    }
+
+    // the time left until the event start is taken as time on this clock
+    long deadline(GameEvent event) {
+        long wallTime = System.currentTimeMillis();
+        return millisAt(wallTime) + event.getStartTime() - wallTime;
+    }
+
+    // events are brought back to wall clock time as they leave the scheduler, repeated calls are no-ops
+    GameEvent toWallTime(GameEvent event, long deadline) {
+        long wallTime = System.currentTimeMillis();
+        long diff = wallTime + deadline - millisAt(wallTime) - event.getStartTime();
+        if (diff != 0) {
+            event.changeDelay(diff, TimeUnit.MILLISECONDS);
+        }
+        return event;
+    }
+
+    private long millisAt(long wallTime) {
+        return state.at(sourceMillisAt(wallTime));
+    }
+
+    private long sourceMillisAt(long wallTime) {
+        return source != null ? source.millisAt(wallTime) : wallTime;
+    }
+
+    private record State(long base, long anchor, double speed) {
+        private long at(long sourceTime) {
+            return speed == 1 ? base + sourceTime - anchor : base + (long) ((sourceTime - anchor) * speed);
+        }
+    }
+}
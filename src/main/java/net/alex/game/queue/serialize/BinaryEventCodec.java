@@ -0,0 +1,185 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class BinaryEventCodec implements EventCodec {
+    // record layout: marker, schema version, varint type id, then varint encoded fields;
+    // records without the marker are JSON written before the binary format or for unregistered types
+    private static final byte MARKER = (byte) 0xB1;
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int GAME_EVENT_TYPE_ID = 1;
+    private static final TimeUnit[] TIME_UNITS = TimeUnit.values();
+
+    private final Map<Class<? extends GameEvent>, Integer> typeIds = new HashMap<>();
+    private final Map<Integer, Supplier<? extends GameEvent.GameEventBuilder<?, ?>>> builders = new HashMap<>();
+    private final JsonEventCodec jsonEventCodec = new JsonEventCodec();
+
+    public BinaryEventCodec() {
+        register(GAME_EVENT_TYPE_ID, GameEvent.class, GameEvent::builder);
+    }
+
+    // only for types without fields of their own, anything else is written as JSON
+    public void register(int typeId,
+                         Class<? extends GameEvent> type,
+                         Supplier<? extends GameEvent.GameEventBuilder<?, ?>> builder) {
+        if (typeIds.containsKey(type) || builders.containsKey(typeId)) {
+            throw new IllegalArgumentException("Event type " + type.getName() + " with id " + typeId +
+                    " is already registered");
+        }
+        typeIds.put(type, typeId);
+        builders.put(typeId, builder);
+    }
+
+    @Override
+    public byte[] encode(GameEvent event) {
+        Integer typeId = typeIds.get(event.getClass());
+        if (typeId == null) {
+            return jsonEventCodec.encode(event);
+        }
+        Output out = new Output();
+        out.writeByte(MARKER);
+        out.writeByte(SCHEMA_VERSION);
+        out.writeVarLong(typeId);
+        out.writeString(event.getId());
+        out.writeString(event.getUniverseId());
+        out.writeVarLong(zigZag(event.getDelay()));
+        out.writeByte(event.getTimeUnit() != null ? event.getTimeUnit().ordinal() + 1 : 0);
+        out.writeVarLong(zigZag(event.getStartTime()));
+        // backup time is close to the start time, the difference takes a couple of bytes
+        out.writeVarLong(zigZag(event.getBackupTime() - event.getStartTime()));
+        return out.toByteArray();
+    }
+
+    @Override
+    public GameEvent decode(byte[] data) throws IOException {
+        if (data.length == 0 || data[0] != MARKER) {
+            return jsonEventCodec.decode(data);
+        }
+        Input in = new Input(data);
+        int version = in.readByte();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Unsupported event schema version " + version);
+        }
+        int typeId = (int) in.readVarLong();
+        Supplier<? extends GameEvent.GameEventBuilder<?, ?>> builder = builders.get(typeId);
+        if (builder == null) {
+            throw new IOException("Unknown event type id " + typeId);
+        }
+        String id = in.readString();
+        String universeId = in.readString();
+        long delay = unZigZag(in.readVarLong());
+        int timeUnit = in.readByte();
+        if (timeUnit > TIME_UNITS.length) {
+            throw new IOException("Unknown time unit " + timeUnit);
+        }
+        long startTime = unZigZag(in.readVarLong());
+        long backupTime = startTime + unZigZag(in.readVarLong());
+        return builder.get().
+                id(id).
+                universeId(universeId).
+                delay(delay).
+                timeUnit(timeUnit != 0 ? TIME_UNITS[timeUnit - 1] : null).
+                startTime(startTime).
+                backupTime(backupTime).
+                build();
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+        private byte[] buffer = new byte[64];
+        private int position;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        // length is shifted by one so that zero stands for null
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int size) {
+            if (position + size > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + size));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position = 1;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() throws IOException {
+            if (position >= buffer.length) {
+                throw new IOException("Truncated event record");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in event record");
+        }
+
+        String readString() throws IOException {
+            long length = readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buffer.length - position) {
+                throw new IOException("Truncated event record");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package net.alex.game.queue.serialize;
+
+public enum CodecType {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,29 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.util.function.Consumer;
+
+public class DisabledEventJournal implements EventJournal {
+    public static final EventJournal INSTANCE = new DisabledEventJournal();
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void append(GameEvent event) {}
+
+    @Override
+    public void complete(GameEvent event) {}
+
+    @Override
+    public void recover(Consumer<GameEvent> consumer) {}
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+
+    @Override
+    public void stop(boolean truncate) {}
+}
@@ -0,0 +1,11 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.io.IOException;
+
+public interface EventCodec {
+    byte[] encode(GameEvent event);
+
+    GameEvent decode(byte[] data) throws IOException;
+}
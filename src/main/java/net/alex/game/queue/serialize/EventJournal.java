@@ -0,0 +1,21 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+public interface EventJournal {
+    void start() throws IOException;
+
+    void append(GameEvent event);
+
+    void complete(GameEvent event);
+
+    void recover(Consumer<GameEvent> consumer) throws IOException;
+
+    // pending events survive a restart without a full backup of the queues
+    boolean isDurable();
+
+    void stop(boolean truncate) throws IOException;
+}
@@ -0,0 +1,3 @@
+package net.alex.game.queue.serialize;
+
+public record EventRecord(String universeId, long fireAt, byte[] data) {}
@@ -2,55 +2,147 @@ package net.alex.game.queue.serialize;
 
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
-import net.alex.game.model.event.GameEventJSON;
 import net.alex.game.queue.event.SystemEvent;
+import net.alex.game.queue.event.UniverseSuspensionEvent;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 @Slf4j
 public abstract class EventSerializer {
 
+    private final int chunkSize;
+    private final EventCodec eventCodec;
+    // reads binary records as well as JSON ones, so switching the codec keeps pending backups readable
+    private final EventCodec readCodec = new BinaryEventCodec();
+
+    protected EventSerializer(int chunkSize, CodecType codecType) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.eventCodec = codecType == CodecType.JSON ? new JsonEventCodec() : readCodec;
+    }
+
     public void readEvents(Consumer<GameEvent> consumer) throws IOException {
+        readEvents(Runnable::run, 1, chunk -> chunk.forEach(consumer));
+    }
+
+    // chunks are decoded on the executor, at most parallelism at a time, so the consumer must be thread-safe
+    public void readEvents(Executor executor, int parallelism, Consumer<List<GameEvent>> consumer) throws IOException {
         log.info("Reading events to queue");
-        List<String> eventJsonList = readFromDataStore();
-        for (String json : eventJsonList) {
-            GameEvent event;
-            try {
-                event = GameEventJSON.fromJSON(json);
-                changeDelay(event);
-                consumer.accept(event);
-            } catch (ClassNotFoundException e) {
-                log.warn("Can't deserialize GameEvent JSON into a valid object", e);
+        LongAdder count = new LongAdder();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(parallelism);
+        Iterator<List<byte[]>> chunks = readFromDataStore(chunkSize);
+        try {
+            while (chunks.hasNext() && failure.get() == null) {
+                List<byte[]> chunk = chunks.next();
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        List<GameEvent> events = decodeChunk(chunk);
+                        consumer.accept(events);
+                        count.add(events.size());
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
             }
+            inFlight.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading events");
+        }
+        if (failure.get() != null) {
+            throw failure.get();
         }
+        completeDataStoreRead();
+        log.info("{} events read", count.sum());
     }
 
     public void writeEvents(Iterator<GameEvent> iterator) throws IOException {
         log.info("Writing events from queue");
         long currentTimeMillis = System.currentTimeMillis();
-        List<String> events = new ArrayList<>();
+        long count = 0;
+        prepareDataStore();
+        List<EventRecord> chunk = new ArrayList<>(chunkSize);
         while (iterator.hasNext()) {
             GameEvent event = iterator.next();
-            if (event instanceof SystemEvent) {
+            // a suspended universe is backed up as its suspension, so it is restored suspended with its parked events
+            if (event instanceof SystemEvent && !(event instanceof UniverseSuspensionEvent)) {
                 continue;
             }
             event.setBackupTime(currentTimeMillis);
-            String json = GameEventJSON.toJSON(event);
-            events.add(json);
+            parkedEvents(event).forEach(parkedEvent -> parkedEvent.setBackupTime(currentTimeMillis));
+            chunk.add(new EventRecord(event.getUniverseId(), event.getStartTime(), eventCodec.encode(event)));
+            if (chunk.size() == chunkSize) {
+                writeToDataStore(chunk);
+                count += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeToDataStore(chunk);
+            count += chunk.size();
+        }
+        flushDataStore();
+        log.info("{} events written", count);
+    }
+
+    private List<GameEvent> decodeChunk(List<byte[]> chunk) {
+        List<GameEvent> events = new ArrayList<>(chunk.size());
+        for (byte[] data : chunk) {
+            GameEvent event;
+            try {
+                event = readCodec.decode(data);
+            } catch (IOException e) {
+                log.warn("Can't deserialize GameEvent into a valid object", e);
+                continue;
+            }
+            restoreDelay(event);
+            parkedEvents(event).forEach(EventSerializer::restoreDelay);
+            events.add(event);
         }
-        writeToDataStore(events);
+        return events;
     }
 
-    private void changeDelay(GameEvent event) {
+    private static List<GameEvent> parkedEvents(GameEvent event) {
+        if (event instanceof UniverseSuspensionEvent suspension && suspension.getParkedEvents() != null) {
+            return suspension.getParkedEvents();
+        }
+        return List.of();
+    }
+
+    static void restoreDelay(GameEvent event) {
         long diff = -(event.getBackupTime() - event.getStartTime());
         event.changeDelay(diff, TimeUnit.MILLISECONDS);
     }
 
-    public abstract List<String> readFromDataStore() throws IOException;
-    public abstract void writeToDataStore(List<String> events) throws IOException;
+    public void prepareDataStore() throws IOException {}
+
+    public void flushDataStore() throws IOException {}
+
+    // called once every chunk reached the consumer, a failed read leaves the store as it was
+    public void completeDataStoreRead() throws IOException {}
+
+    // only stores that keep events by universe can drop them without a full rewrite
+    public void deleteUniverse(String universeId) throws IOException {}
+
+    // chunks are fetched lazily, at most chunkSize events each
+    public abstract Iterator<List<byte[]>> readFromDataStore(int chunkSize) throws IOException;
+
+    // chunk list is reused by the caller once the method returns
+    public abstract void writeToDataStore(List<EventRecord> chunk) throws IOException;
 }
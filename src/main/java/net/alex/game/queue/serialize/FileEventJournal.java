@@ -0,0 +1,459 @@
+package net.alex.game.queue.serialize;
+
+import lombok.extern.slf4j.Slf4j;
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.JournalConfig;
+import net.alex.game.queue.event.SystemEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Slf4j
+public class FileEventJournal implements EventJournal, Runnable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte ADD = 1;
+    private static final byte COMPLETE = 2;
+    // record layout: body length, CRC32C of body; body is record type, sequence and encoded event for ADD records
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int BODY_HEADER_SIZE = 1 + Long.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final int groupCommitSize;
+    private final long groupCommitInterval;
+    private final long segmentSize;
+    private final int maxSegments;
+    private final long checkpointInterval;
+    private final int checkpointBatchSize;
+
+    // producers encode their events, the codec is only read after construction
+    private final EventCodec eventCodec = new BinaryEventCodec();
+    private final Queue<Object> records = new ConcurrentLinkedQueue<>();
+    private volatile Thread writerThread;
+    private volatile boolean waiting = false;
+    private volatile boolean running = false;
+
+    // state below is owned by the writer thread once it is started
+    private final Map<GameEvent, Long> pendingSequences = new IdentityHashMap<>();
+    private final Map<Long, Long> liveSequences = new HashMap<>();
+    private final NavigableMap<Long, Integer> liveCounts = new TreeMap<>();
+    private final List<CountDownLatch> barriers = new ArrayList<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private long generation;
+    private long sequence;
+    private long segmentPosition;
+    private int unsynced;
+    private long lastSyncTime;
+    private long lastCheckpointTime;
+    private Relocation relocation;
+
+    private List<Path> recoveredSegments = List.of();
+    private Map<Long, byte[]> recoveredEvents = Map.of();
+
+    public FileEventJournal(JournalConfig journalConfig) {
+        this.directory = Path.of(journalConfig.directory());
+        this.groupCommitSize = journalConfig.groupCommitSize();
+        this.groupCommitInterval = TimeUnit.MILLISECONDS.toNanos(journalConfig.groupCommitInterval());
+        this.segmentSize = journalConfig.segmentSize();
+        this.maxSegments = journalConfig.maxSegments();
+        this.checkpointInterval = TimeUnit.MILLISECONDS.toNanos(journalConfig.checkpointInterval());
+        this.checkpointBatchSize = journalConfig.checkpointBatchSize();
+    }
+
+    @Override
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        recoveredSegments = listSegments();
+        recoveredEvents = new LinkedHashMap<>();
+        for (Path segment : recoveredSegments) {
+            generation = Math.max(generation, generationOf(segment));
+            readSegment(segment, record -> {
+                sequence = Math.max(sequence, record.seq());
+                if (record.type() == ADD) {
+                    recoveredEvents.put(record.seq(), record.payload());
+                } else {
+                    recoveredEvents.remove(record.seq());
+                }
+            });
+        }
+        openSegment(generation + 1);
+        lastSyncTime = System.nanoTime();
+        lastCheckpointTime = lastSyncTime;
+        running = true;
+        writerThread = new Thread(this, "event-journal");
+        writerThread.start();
+        log.info("Event journal started in {}, {} events to recover", directory, recoveredEvents.size());
+    }
+
+    // the event is encoded by the producer, the writer only keeps its reference to match the completion
+    @Override
+    public void append(GameEvent event) {
+        if (running && !(event instanceof SystemEvent)) {
+            event.setBackupTime(System.currentTimeMillis());
+            offer(new Addition(event, eventCodec.encode(event)));
+        }
+    }
+
+    @Override
+    public void complete(GameEvent event) {
+        if (running && !(event instanceof SystemEvent)) {
+            offer(new Completion(event));
+        }
+    }
+
+    @Override
+    public void recover(Consumer<GameEvent> consumer) throws IOException {
+        log.info("Recovering {} events from journal", recoveredEvents.size());
+        for (byte[] payload : recoveredEvents.values()) {
+            GameEvent event;
+            try {
+                event = eventCodec.decode(payload);
+            } catch (IOException e) {
+                log.warn("Can't deserialize GameEvent into a valid object", e);
+                continue;
+            }
+            EventSerializer.restoreDelay(event);
+            consumer.accept(event);
+        }
+        recoveredEvents = Map.of();
+        awaitSync();
+        if (!running) {
+            throw new IOException("Event journal failed while recovering, keeping recovered segments");
+        }
+        for (Path segment : recoveredSegments) {
+            Files.deleteIfExists(segment);
+        }
+        recoveredSegments = List.of();
+    }
+
+    @Override
+    public boolean isDurable() {
+        return running;
+    }
+
+    @Override
+    public void stop(boolean truncate) throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while stopping event journal", e);
+        }
+        if (truncate) {
+            for (Path segment : listSegments()) {
+                Files.delete(segment);
+            }
+        }
+        log.info("Event journal stopped, truncated - {}", truncate);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running || !records.isEmpty()) {
+                int count = 0;
+                Object record;
+                while (count < groupCommitSize && (record = records.poll()) != null) {
+                    if (record instanceof Addition addition) {
+                        writeAdd(addition);
+                    } else if (record instanceof Completion completion) {
+                        writeComplete(completion.event());
+                    } else {
+                        barriers.add((CountDownLatch) record);
+                    }
+                    count++;
+                }
+                long sinceLastSync = System.nanoTime() - lastSyncTime;
+                boolean synced = false;
+                if (unsynced >= groupCommitSize || !barriers.isEmpty() ||
+                        (unsynced > 0 && (sinceLastSync >= groupCommitInterval || !running))) {
+                    sync();
+                    synced = true;
+                }
+                boolean checkpointPending = relocation != null || liveCounts.size() > maxSegments;
+                long sinceLastCheckpoint = System.nanoTime() - lastCheckpointTime;
+                if (checkpointPending && sinceLastCheckpoint >= checkpointInterval) {
+                    checkpoint();
+                } else if (!synced && count == 0) {
+                    awaitRecords(Math.min(
+                            unsynced > 0 ? groupCommitInterval - sinceLastSync : Long.MAX_VALUE,
+                            checkpointPending ? checkpointInterval - sinceLastCheckpoint : Long.MAX_VALUE));
+                }
+            }
+            sync();
+            channel.close();
+        } catch (IOException e) {
+            running = false;
+            log.error("Event journal failed, pending events are no longer durable");
+            log.error(e.getMessage(), e);
+        } finally {
+            barriers.forEach(CountDownLatch::countDown);
+            barriers.clear();
+            records.forEach(record -> {
+                if (record instanceof CountDownLatch barrier) {
+                    barrier.countDown();
+                }
+            });
+        }
+    }
+
+    private void offer(Object record) {
+        records.offer(record);
+        if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void awaitSync() throws IOException {
+        if (!running) {
+            throw new IOException("Event journal is not running");
+        }
+        CountDownLatch barrier = new CountDownLatch(1);
+        offer(barrier);
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while syncing event journal", e);
+        }
+    }
+
+    private void awaitRecords(long timeout) {
+        waiting = true;
+        try {
+            if (running && records.isEmpty()) {
+                if (timeout == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, timeout);
+                }
+            }
+        } finally {
+            waiting = false;
+        }
+    }
+
+    private void writeAdd(Addition addition) throws IOException {
+        GameEvent event = addition.event();
+        if (pendingSequences.containsKey(event)) {
+            writeComplete(event);
+        }
+        long seq = ++sequence;
+        pendingSequences.put(event, seq);
+        liveSequences.put(seq, generation);
+        liveCounts.merge(generation, 1, Integer::sum);
+        writeRecord(ADD, seq, addition.payload());
+    }
+
+    private void writeComplete(GameEvent event) throws IOException {
+        Long seq = pendingSequences.remove(event);
+        if (seq != null) {
+            releaseSequence(seq);
+            writeRecord(COMPLETE, seq, new byte[0]);
+        }
+    }
+
+    // events left behind in a dropped segment are no longer counted anywhere
+    private void releaseSequence(long seq) {
+        Long segment = liveSequences.remove(seq);
+        if (segment != null) {
+            liveCounts.computeIfPresent(segment, (key, count) -> count - 1);
+        }
+    }
+
+    private void writeRecord(byte type, long seq, byte[] payload) throws IOException {
+        int bodySize = BODY_HEADER_SIZE + payload.length;
+        int recordSize = HEADER_SIZE + bodySize;
+        if (writeBuffer.remaining() < recordSize) {
+            flushBuffer();
+        }
+        if (recordSize > writeBuffer.capacity()) {
+            ByteBuffer buffer = ByteBuffer.allocate(recordSize);
+            encodeRecord(buffer, type, seq, payload);
+            buffer.flip();
+            writeFully(buffer);
+        } else {
+            encodeRecord(writeBuffer, type, seq, payload);
+        }
+        segmentPosition += recordSize;
+        unsynced++;
+    }
+
+    private void encodeRecord(ByteBuffer buffer, byte type, long seq, byte[] payload) {
+        int start = buffer.position();
+        int bodySize = BODY_HEADER_SIZE + payload.length;
+        buffer.putInt(bodySize);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(seq);
+        buffer.put(payload);
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_SIZE, bodySize));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void sync() throws IOException {
+        flushBuffer();
+        channel.force(false);
+        unsynced = 0;
+        lastSyncTime = System.nanoTime();
+        barriers.forEach(CountDownLatch::countDown);
+        barriers.clear();
+        if (segmentPosition >= segmentSize) {
+            openSegment(generation + 1);
+        }
+        compact();
+    }
+
+    private void flushBuffer() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void openSegment(long newGeneration) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        generation = newGeneration;
+        channel = FileChannel.open(segmentPath(generation), StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        segmentPosition = 0;
+        liveCounts.putIfAbsent(generation, 0);
+    }
+
+    // the log is replayed in order, so segments are only ever dropped from the oldest end
+    private void compact() throws IOException {
+        while (liveCounts.size() > 1 && liveCounts.firstEntry().getValue() == 0) {
+            long oldest = liveCounts.pollFirstEntry().getKey();
+            Files.deleteIfExists(segmentPath(oldest));
+        }
+    }
+
+    // pending events of the oldest segment are copied forward at most a batch per checkpoint,
+    // so a long-lived backlog never stalls appends behind a whole segment rewrite
+    private void checkpoint() throws IOException {
+        lastCheckpointTime = System.nanoTime();
+        compact();
+        if (relocation != null && !liveCounts.containsKey(relocation.generation())) {
+            relocation = null;
+        }
+        if (relocation == null) {
+            if (liveCounts.size() <= maxSegments) {
+                return;
+            }
+            long oldest = liveCounts.firstKey();
+            Path path = segmentPath(oldest);
+            relocation = new Relocation(oldest, path, ByteBuffer.wrap(Files.readAllBytes(path)));
+        }
+        long oldGeneration = relocation.generation();
+        int relocated = 0;
+        JournalRecord record = null;
+        while (relocated < checkpointBatchSize &&
+                (record = readRecord(relocation.buffer(), relocation.path())) != null) {
+            Long segment = liveSequences.get(record.seq());
+            if (record.type() == ADD && segment != null && segment == oldGeneration) {
+                writeRecord(ADD, record.seq(), record.payload());
+                liveSequences.put(record.seq(), generation);
+                liveCounts.merge(generation, 1, Integer::sum);
+                liveCounts.merge(oldGeneration, -1, Integer::sum);
+                relocated++;
+            }
+        }
+        if (record == null) {
+            // anything left behind sits after a torn record and can't be recovered from this segment anyway,
+            // the segment is the oldest one so it is dropped right away
+            liveCounts.remove(oldGeneration);
+            Files.deleteIfExists(relocation.path());
+            relocation = null;
+        }
+        log.debug("Relocated {} pending events from journal segment {}", relocated, oldGeneration);
+        sync();
+    }
+
+    private void readSegment(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        JournalRecord record;
+        while ((record = readRecord(buffer, path)) != null) {
+            consumer.accept(record);
+        }
+    }
+
+    private JournalRecord readRecord(ByteBuffer buffer, Path path) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int bodySize = buffer.getInt();
+        int expected = buffer.getInt();
+        if (bodySize < BODY_HEADER_SIZE || bodySize > buffer.remaining()) {
+            log.warn("Truncated journal record in {}, ignoring the rest of the segment", path);
+            buffer.position(buffer.limit());
+            return null;
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(buffer.position(), bodySize));
+        if ((int) checksum.getValue() != expected) {
+            log.warn("Journal record checksum mismatch in {}, ignoring the rest of the segment", path);
+            buffer.position(buffer.limit());
+            return null;
+        }
+        byte type = buffer.get();
+        long seq = buffer.getLong();
+        byte[] payload = new byte[bodySize - BODY_HEADER_SIZE];
+        buffer.get(payload);
+        return new JournalRecord(type, seq, payload);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    }).
+                    sorted().
+                    toList();
+        }
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segmentGeneration, SEGMENT_SUFFIX));
+    }
+
+    private static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Addition(GameEvent event, byte[] payload) {}
+
+    private record Completion(GameEvent event) {}
+
+    private record JournalRecord(byte type, long seq, byte[] payload) {}
+
+    private record Relocation(long generation, Path path, ByteBuffer buffer) {}
+}
@@ -1,24 +1,49 @@
 package net.alex.game.queue.serialize;
 
 import lombok.extern.slf4j.Slf4j;
+import net.alex.game.queue.config.SerializerConfig;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 @Slf4j
 @Component("InMemoryEventSerializer")
 public class InMemoryEventSerializer extends EventSerializer {
 
-    private static final List<String> STORE = Collections.synchronizedList(new ArrayList<>());
+    private static final List<byte[]> STORE = Collections.synchronizedList(new ArrayList<>());
 
-    public List<String> readFromDataStore() {
-        return Collections.unmodifiableList(STORE);
+    public InMemoryEventSerializer(SerializerConfig serializerConfig) {
+        super(serializerConfig.chunkSize(), serializerConfig.codec());
     }
 
-    public void writeToDataStore(List<String> events) {
+    public Iterator<List<byte[]>> readFromDataStore(int chunkSize) {
+        return new Iterator<>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < STORE.size();
+            }
+
+            @Override
+            public List<byte[]> next() {
+                synchronized (STORE) {
+                    if (position >= STORE.size()) {
+                        throw new NoSuchElementException();
+                    }
+                    List<byte[]> chunk = new ArrayList<>(STORE.subList(position, Math.min(position + chunkSize, STORE.size())));
+                    position += chunk.size();
+                    return chunk;
+                }
+            }
+        };
+    }
+
+    public void prepareDataStore() {
         STORE.clear();
-        STORE.addAll(events);
+    }
+
+    public void writeToDataStore(List<EventRecord> chunk) {
+        chunk.forEach(eventRecord -> STORE.add(eventRecord.data()));
     }
 }
@@ -0,0 +1,28 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.model.event.GameEventJSON;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class JsonEventCodec implements EventCodec {
+
+    @Override
+    public byte[] encode(GameEvent event) {
+        return GameEventJSON.toJSON(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public GameEvent decode(byte[] data) throws IOException {
+        try {
+            GameEvent event = GameEventJSON.fromJSON(new String(data, StandardCharsets.UTF_8));
+            if (event == null) {
+                throw new IOException("Empty GameEvent JSON");
+            }
+            return event;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Can't deserialize GameEvent JSON into a valid object", e);
+        }
+    }
+}
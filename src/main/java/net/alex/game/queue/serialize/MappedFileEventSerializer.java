@@ -0,0 +1,206 @@
+package net.alex.game.queue.serialize;
+
+import lombok.extern.slf4j.Slf4j;
+import net.alex.game.queue.config.SerializerConfig;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Slf4j
+@Component("MappedFileEventSerializer")
+public class MappedFileEventSerializer extends EventSerializer {
+
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // record layout: payload length, CRC32C of payload, encoded event; zero length marks the end of a segment
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    // segments of a restore that has not completed yet, they survive a rewrite so their events are read again
+    private final Set<Path> restoringSegments = ConcurrentHashMap.newKeySet();
+
+    public MappedFileEventSerializer(SerializerConfig serializerConfig) {
+        super(serializerConfig.chunkSize(), serializerConfig.codec());
+        this.directory = Path.of(serializerConfig.directory());
+        this.segmentSize = serializerConfig.segmentSize();
+    }
+
+    @Override
+    public void prepareDataStore() throws IOException {
+        Files.createDirectories(directory);
+        segmentIndex = 0;
+        for (Path path : listSegments()) {
+            if (restoringSegments.contains(path)) {
+                segmentIndex = Math.max(segmentIndex, segmentIndex(path) + 1);
+            } else {
+                Files.delete(path);
+            }
+        }
+        if (!restoringSegments.isEmpty()) {
+            log.warn("{} segments of an incomplete restore are kept, events restored before the failure " +
+                    "may be restored twice", restoringSegments.size());
+        }
+        segment = null;
+    }
+
+    @Override
+    public void writeToDataStore(List<EventRecord> chunk) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (EventRecord eventRecord : chunk) {
+            byte[] payload = eventRecord.data();
+            if (segment == null || segment.remaining() < HEADER_SIZE + payload.length) {
+                nextSegment(HEADER_SIZE + payload.length);
+            }
+            crc.reset();
+            crc.update(payload);
+            segment.putInt(payload.length);
+            segment.putInt((int) crc.getValue());
+            segment.put(payload);
+        }
+    }
+
+    @Override
+    public void flushDataStore() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    @Override
+    public void completeDataStoreRead() throws IOException {
+        for (Path path : restoringSegments) {
+            Files.deleteIfExists(path);
+        }
+        restoringSegments.clear();
+    }
+
+    // segments are deleted only once the whole restore succeeded, the read ones are unmapped along the way
+    @Override
+    public Iterator<List<byte[]>> readFromDataStore(int chunkSize) throws IOException {
+        Deque<Path> segments = new ArrayDeque<>(Files.isDirectory(directory) ? listSegments() : List.of());
+        restoringSegments.addAll(segments);
+        return new Iterator<>() {
+            private Path path;
+            private MappedByteBuffer buffer;
+            private List<byte[]> chunk;
+
+            @Override
+            public boolean hasNext() {
+                if (chunk == null) {
+                    chunk = readChunk();
+                }
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public List<byte[]> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<byte[]> result = chunk;
+                chunk = null;
+                return result;
+            }
+
+            private List<byte[]> readChunk() {
+                List<byte[]> result = new ArrayList<>(chunkSize);
+                try {
+                    while (result.size() < chunkSize) {
+                        if (buffer == null) {
+                            path = segments.poll();
+                            if (path == null) {
+                                break;
+                            }
+                            buffer = map(path, FileChannel.MapMode.READ_ONLY, Files.size(path));
+                        }
+                        byte[] payload = readRecord(buffer, path);
+                        if (payload != null) {
+                            result.add(payload);
+                        } else {
+                            buffer = null;
+                            path = null;
+                        }
+                    }
+                } catch (IOException e) {
+                    buffer = null;
+                    throw new UncheckedIOException(e);
+                }
+                return result;
+            }
+        };
+    }
+
+    private void nextSegment(int recordSize) throws IOException {
+        if (recordSize > segmentSize) {
+            throw new IOException("Event record of " + recordSize + " bytes exceeds segment size " + segmentSize);
+        }
+        if (segment != null) {
+            segment.force();
+        }
+        Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segmentIndex++, SEGMENT_SUFFIX));
+        segment = map(path, FileChannel.MapMode.READ_WRITE, segmentSize);
+    }
+
+    private static int segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    }).
+                    sorted().
+                    toList();
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+        Set<StandardOpenOption> options = mode == FileChannel.MapMode.READ_ONLY ?
+                EnumSet.of(StandardOpenOption.READ) :
+                EnumSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    private static byte[] readRecord(MappedByteBuffer buffer, Path path) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            if (length != 0) {
+                log.warn("Truncated event record in {}, skipping the rest of the segment", path);
+            }
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            log.warn("Event record checksum mismatch in {}, skipping the rest of the segment", path);
+            return null;
+        }
+        return payload;
+    }
+}
@@ -1,41 +1,63 @@
 package net.alex.game.queue.serialize;
 
-import jakarta.transaction.Transactional;
+import net.alex.game.queue.config.SerializerConfig;
 import net.alex.game.queue.persistence.entity.EventBackupEntity;
-import net.alex.game.queue.persistence.repo.EventBackupCrudRepo;
 import net.alex.game.queue.persistence.repo.EventBackupNativeRepo;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @Component("PostgresqlEventSerializer")
 public class PostgresqlEventSerializer extends EventSerializer {
 
-
     private final EventBackupNativeRepo eventBackupNativeRepo;
-    private final EventBackupCrudRepo eventBackupCrudRepo;
 
-    public PostgresqlEventSerializer(EventBackupNativeRepo eventBackupNativeRepo,
-                                     EventBackupCrudRepo eventBackupCrudRepo) {
+    public PostgresqlEventSerializer(SerializerConfig serializerConfig,
+                                     EventBackupNativeRepo eventBackupNativeRepo) {
+        super(serializerConfig.chunkSize(), serializerConfig.codec());
         this.eventBackupNativeRepo = eventBackupNativeRepo;
-        this.eventBackupCrudRepo = eventBackupCrudRepo;
     }
 
     @Override
-    public List<String> readFromDataStore() {
-        List<String> result = new ArrayList<>();
-        List<EventBackupEntity> entities = eventBackupNativeRepo.readAndDeleteWithLock();
-        while (!entities.isEmpty()) {
-            result.addAll(entities.stream().map(EventBackupEntity::getEventJson).toList());
-            entities = eventBackupNativeRepo.readAndDeleteWithLock();
-        }
-        return result;
+    public Iterator<List<byte[]>> readFromDataStore(int chunkSize) {
+        return new Iterator<>() {
+            private List<EventBackupEntity> entities;
+
+            @Override
+            public boolean hasNext() {
+                if (entities == null) {
+                    entities = eventBackupNativeRepo.readAndDelete(chunkSize);
+                }
+                return !entities.isEmpty();
+            }
+
+            @Override
+            public List<byte[]> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<byte[]> chunk = entities.stream().map(EventBackupEntity::getEventData).toList();
+                entities = null;
+                return chunk;
+            }
+        };
+    }
+
+    @Override
+    public void deleteUniverse(String universeId) {
+        eventBackupNativeRepo.deleteUniverse(universeId);
     }
 
     @Override
-    @Transactional
-    public void writeToDataStore(List<String> events) {
-        eventBackupCrudRepo.saveAll(events.stream().map(s -> new EventBackupEntity(null, s)).toList());
+    public void writeToDataStore(List<EventRecord> chunk) throws IOException {
+        try {
+            eventBackupNativeRepo.writeAll(chunk);
+        } catch (SQLException e) {
+            throw new IOException("Unable to write events backup", e);
+        }
     }
 }
@@ -1,21 +1,45 @@
 package net.alex.game.queue.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.model.event.GameEventJSON;
+import net.alex.game.queue.event.EventCancellationEvent;
+import net.alex.game.queue.event.EventRescheduleEvent;
+import net.alex.game.queue.event.SystemEvent;
+import net.alex.game.queue.event.UniverseClockEvent;
+import net.alex.game.queue.event.UniverseDropEvent;
+import net.alex.game.queue.event.UniverseSuspensionEvent;
 import net.alex.game.queue.exception.EventDeclinedException;
+import net.alex.game.queue.exception.InvalidUniverseSpeedException;
 import net.alex.game.queue.executor.GameThreadPoolExecutor;
+import net.alex.game.queue.model.out.EventResultOut;
 import net.alex.game.queue.thread.GameEventThread;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class EventService {
+    private static final String INVALID_EVENT = "Invalid event";
+    private static final String NO_THREAD_AVAILABLE = "No event thread available";
+
     private final GameThreadPoolExecutor threadPoolExecutor;
+    private final Validator validator;
 
-    public EventService(GameThreadPoolExecutor threadPoolExecutor) {
+    public EventService(GameThreadPoolExecutor threadPoolExecutor, Validator validator) {
         this.threadPoolExecutor = threadPoolExecutor;
+        this.validator = validator;
     }
 
     public void addEvent(GameEvent gameEvent) {
@@ -26,8 +50,157 @@ public class EventService {
         checkAndAddEvent(GameEvent.builder().universeId(universeId).id(eventId).delay(delay).timeUnit(timeUnit).build());
     }
 
+    // the universe events are scheduled against its clock, speed 0 pauses the universe and 1 is real time
+    public void changeUniverseSpeed(String universeId, double speed) {
+        if (!(speed >= 0) || Double.isInfinite(speed)) {
+            throw new InvalidUniverseSpeedException();
+        }
+        checkAndAddEvent(UniverseClockEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                speed(speed).
+                build());
+    }
+
+    // an event that already left the queue is not affected, the request is applied in order with added events
+    public void cancelEvent(String universeId, String eventId) {
+        checkAndAddEvent(EventCancellationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId(eventId).
+                build());
+    }
+
+    public void rescheduleEvent(String universeId, String eventId, long delay, TimeUnit timeUnit) {
+        checkAndAddEvent(EventRescheduleEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId(eventId).
+                targetDelay(delay).
+                targetTimeUnit(timeUnit).
+                build());
+    }
+
+    // events of a suspended universe are parked off the queue, their start times keep running meanwhile
+    public void suspendUniverse(String universeId, boolean suspend) {
+        checkAndAddEvent(UniverseSuspensionEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                suspend(suspend).
+                build());
+    }
+
+    // queued events are dropped by the universe thread, backed up ones straight from the store
+    public void dropUniverse(String universeId) {
+        checkAndAddEvent(UniverseDropEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                build());
+        threadPoolExecutor.deleteBackup(universeId);
+    }
+
+    // elements are bound as raw JSON, so a malformed or invalid event is declined alone
+    public List<EventResultOut> addEvents(List<JsonNode> events) {
+        List<GameEvent> gameEvents = new ArrayList<>(events.size());
+        List<EventResultOut> declined = new ArrayList<>();
+        for (JsonNode event : events) {
+            gameEvents.add(readEvent(event.toString(), gameEvents.size(), declined));
+        }
+        return addEvents(gameEvents, declined);
+    }
+
+    public List<EventResultOut> addEvents(InputStream ndjson) throws IOException {
+        List<GameEvent> gameEvents = new ArrayList<>();
+        List<EventResultOut> declined = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    gameEvents.add(readEvent(line, gameEvents.size(), declined));
+                }
+            }
+        }
+        return addEvents(gameEvents, declined);
+    }
+
+    // the payload names its event class, internal system events are only issued by the service itself
+    private GameEvent readEvent(String json, int index, List<EventResultOut> declined) {
+        GameEvent gameEvent = null;
+        try {
+            gameEvent = GameEventJSON.fromJSON(json);
+        } catch (Exception e) {
+            log.debug("Can't deserialize GameEvent JSON at batch index {}", index, e);
+        }
+        if (gameEvent instanceof SystemEvent) {
+            log.debug("System event {} declined at batch index {}", gameEvent.getClass().getSimpleName(), index);
+            gameEvent = null;
+        }
+        if (gameEvent == null) {
+            declined.add(EventResultOut.builder().index(index).accepted(false).reason(INVALID_EVENT).build());
+            return null;
+        }
+        Set<ConstraintViolation<GameEvent>> violations = validator.validate(gameEvent);
+        if (!violations.isEmpty()) {
+            String reason = violations.stream().
+                    map(v -> v.getPropertyPath() + " " + v.getMessage()).
+                    sorted().
+                    collect(Collectors.joining(", ", INVALID_EVENT + ": ", ""));
+            declined.add(EventResultOut.builder().index(index).id(gameEvent.getId()).accepted(false).
+                    reason(reason).build());
+            return null;
+        }
+        return gameEvent;
+    }
+
+    private List<EventResultOut> addEvents(List<GameEvent> gameEvents, List<EventResultOut> declined) {
+        EventResultOut[] results = new EventResultOut[gameEvents.size()];
+        declined.forEach(result -> results[result.getIndex()] = result);
+        addEvents(gameEvents, results);
+        return Arrays.asList(results);
+    }
+
+    private void addEvents(List<GameEvent> gameEvents, EventResultOut[] results) {
+        Map<GameEventThread, List<GameEvent>> eventsByThread = new IdentityHashMap<>();
+        GameEventThread vacantThread = null;
+        for (int i = 0; i < gameEvents.size(); i++) {
+            GameEvent gameEvent = gameEvents.get(i);
+            if (gameEvent == null) {
+                continue;
+            }
+            GameEventThread gameEventThread;
+            if (gameEvent.getUniverseId() != null) {
+                gameEventThread = threadPoolExecutor.getUniverseThread(gameEvent.getUniverseId());
+            } else {
+                if (vacantThread == null) {
+                    vacantThread = threadPoolExecutor.getVacantThread();
+                }
+                gameEventThread = vacantThread;
+            }
+            if (gameEventThread != null) {
+                eventsByThread.computeIfAbsent(gameEventThread, t -> new ArrayList<>()).add(gameEvent);
+                results[i] = EventResultOut.builder().index(i).id(gameEvent.getId()).accepted(true).build();
+            } else {
+                log.debug("Can't access thread to pass event into the queue, universeId {}, eventId {}",
+                        gameEvent.getUniverseId(), gameEvent.getId());
+                results[i] = EventResultOut.builder().index(i).id(gameEvent.getId()).accepted(false).
+                        reason(NO_THREAD_AVAILABLE).build();
+            }
+        }
+        eventsByThread.forEach(GameEventThread::addEvents);
+    }
+
     private void checkAndAddEvent(GameEvent gameEvent) {
-        GameEventThread gameEventThread = threadPoolExecutor.getVacantThread();
+        GameEventThread gameEventThread = threadPoolExecutor.getUniverseThread(gameEvent.getUniverseId());
         if (gameEventThread != null) {
             gameEventThread.addEvent(gameEvent);
         } else {
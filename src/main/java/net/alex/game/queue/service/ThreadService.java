@@ -3,6 +3,7 @@ package net.alex.game.queue.service;
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.queue.exception.ResourceNotFoundException;
 import net.alex.game.queue.executor.GameThreadPoolExecutor;
+import net.alex.game.queue.model.out.RestoreStatusOut;
 import net.alex.game.queue.thread.GameThreadStats;
 import org.springframework.stereotype.Service;
 
@@ -26,4 +27,8 @@ public class ThreadService {
     public List<GameThreadStats> getThreadStatisticsList() {
         return threadPoolExecutor.getThreadStatisticsList();
     }
+
+    public RestoreStatusOut getRestoreStatus() {
+        return threadPoolExecutor.getRestoreProgress().getStatus();
+    }
 }
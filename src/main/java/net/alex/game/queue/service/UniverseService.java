@@ -12,6 +12,12 @@ import org.springframework.stereotype.Service;
 @Service
 public class UniverseService {
 
+    private final EventService eventService;
+
+    public UniverseService(EventService eventService) {
+        this.eventService = eventService;
+    }
+
     public Page<ColonyDescription> getColoniesList(String universeId, Pageable pageable) {
         return Page.empty(); //todo: implement
     }
@@ -21,15 +27,18 @@ public class UniverseService {
     }
 
     public void deleteUniverse(String universeId) {
-        //todo: implement
+        eventService.dropUniverse(universeId);
+        //todo: delete universe data
     }
 
     public void startUniverse(String universeId) {
-        //todo: implement
+        eventService.suspendUniverse(universeId, false);
+        //todo: update universe state
     }
 
     public void stopUniverse(String universeId) {
-        //todo: implement
+        eventService.suspendUniverse(universeId, true);
+        //todo: update universe state
     }
 
     public Universe getUniverse(String universeId) {
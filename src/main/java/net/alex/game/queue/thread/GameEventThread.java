@@ -1,70 +1,262 @@
 package net.alex.game.queue.thread;
 
+import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.EventCancellationEvent;
+import net.alex.game.queue.event.EventRescheduleEvent;
 import net.alex.game.queue.event.FastModeSwitchEvent;
 import net.alex.game.queue.event.QueueTerminationEvent;
 import net.alex.game.queue.event.SystemEvent;
+import net.alex.game.queue.event.ThreadRetirementEvent;
+import net.alex.game.queue.event.UniverseClockEvent;
+import net.alex.game.queue.event.UniverseDropEvent;
+import net.alex.game.queue.event.UniverseMigrationEvent;
+import net.alex.game.queue.event.UniverseSuspensionEvent;
 import net.alex.game.queue.executor.EventExecutor;
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.scheduler.HeapEventScheduler;
+import net.alex.game.queue.scheduler.ScheduledEvent;
+import net.alex.game.queue.serialize.DisabledEventJournal;
+import net.alex.game.queue.serialize.EventJournal;
 
-import java.util.Iterator;
-import java.util.concurrent.DelayQueue;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class GameEventThread implements Runnable {
+    private static final long DEFAULT_LOAD_FACTOR_PRECISION = 100;
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final long STOLEN_UNIVERSE_WAIT = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long STEAL_RETRY_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MIN_PRUNE_SIZE = 64;
 
     private final EventExecutor eventExecutor;
-    private final long loadFactorPrecision;
+    private final GameThreadCounters counters;
 
-    private final DelayQueue<GameEvent> eventDelayQueue = new DelayQueue<>();
+    private final EventScheduler eventScheduler;
+    private final EventJournal eventJournal;
+    private final int batchSize;
+    private final MpscRingBuffer<GameEvent> eventBuffer;
+    private final Queue<Collection<GameEvent>> transferQueue = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> universeLoad = new ConcurrentHashMap<>();
+    // scheduled entries by universe and identity for suspending and dropping, events without an id or
+    // with a repeated id are reached too
+    private final Map<String, ScheduledEntries> universeEntries = new HashMap<>();
+    // scheduled events by universe and id for cancelling, thieves take events off it too,
+    // a repeated id points at the newer entry
+    private final Map<String, Map<String, ScheduledEvent>> scheduledEvents = new ConcurrentHashMap<>();
+    // events of suspended universes stay off the scheduler until the universe is started again
+    private final Map<String, Queue<GameEvent>> parkedEvents = new ConcurrentHashMap<>();
+    // universes handed over to another thread, stale arrivals for them are forwarded in the order they are drained
+    private final Map<String, GameEventThread> migratedUniverses = new ConcurrentHashMap<>();
 
-    private final AtomicReference<GameThreadStats> statsAtomicReference = new AtomicReference<>(new GameThreadStats());
+    // work stealing state, the fetch lock makes polling and marking the executing universe atomic for thieves
+    private final WorkStealingGroup workStealingGroup;
+    private final ReentrantLock fetchLock = new ReentrantLock();
+    private final Set<String> stolenUniverses = ConcurrentHashMap.newKeySet();
+    private volatile String executingUniverse;
+    private volatile boolean busy = false;
+    private GameEventThread stolenFrom;
+
+    // offloaded execution state, counters are owned by the game thread and completions are handed back to it
+    private final OffloadedExecution offloadedExecution;
+    private final Queue<OffloadedCompletion> completions = new ConcurrentLinkedQueue<>();
+    private final Map<String, Integer> universeInFlight = new HashMap<>();
+    private final Map<String, Queue<GameEvent>> blockedEvents = new ConcurrentHashMap<>();
+    private int inFlight;
+
+    // producers in the middle of adding are counted, so a retiring thread can wait them out before handing over
+    private final LongAdder producers = new LongAdder();
+    private volatile Consumer<Collection<GameEvent>> handOver;
+    private volatile boolean retired = false;
+
+    private volatile Thread eventThread;
+    private volatile boolean waiting = false;
+    private volatile long wakeUpTime = Long.MAX_VALUE;
 
     private boolean fastMode = false;
     private long fastModeTimestamp = -1L;
 
-    public GameEventThread(EventExecutor eventExecutor, long loadFactorPrecision) {
-        this.eventExecutor = eventExecutor;
-        this.loadFactorPrecision = loadFactorPrecision;
+    // settings left unset fall back to the defaults, a thread without a group or offloading runs alone and inline
+    @Builder
+    private GameEventThread(EventExecutor eventExecutor,
+                            long loadFactorPrecision,
+                            EventScheduler eventScheduler,
+                            int bufferSize,
+                            EventJournal eventJournal,
+                            WorkStealingGroup workStealingGroup,
+                            OffloadedExecution offloadedExecution,
+                            int batchSize) {
+        this.eventExecutor = Objects.requireNonNull(eventExecutor);
+        this.counters = new GameThreadCounters(loadFactorPrecision > 0 ? loadFactorPrecision :
+                DEFAULT_LOAD_FACTOR_PRECISION);
+        this.eventScheduler = eventScheduler != null ? eventScheduler : new HeapEventScheduler();
+        this.eventJournal = eventJournal != null ? eventJournal : DisabledEventJournal.INSTANCE;
+        this.eventBuffer = new MpscRingBuffer<>(bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE);
+        this.workStealingGroup = workStealingGroup;
+        this.offloadedExecution = offloadedExecution;
+        this.batchSize = Math.max(batchSize, 1);
     }
 
     public void addEvent(GameEvent event) {
         event.init();
-        eventDelayQueue.offer(event);
+        eventJournal.append(event);
+        producers.increment();
+        try {
+            if (retired) {
+                handOver.accept(List.of(event));
+                return;
+            }
+            while (!eventBuffer.offer(event)) {
+                if (Thread.currentThread() == eventThread) {
+                    schedule(event);
+                    return;
+                }
+                Thread.yield();
+            }
+            if (waiting) {
+                LockSupport.unpark(eventThread);
+            }
+        } finally {
+            producers.decrement();
+        }
+    }
+
+    // a restored suspension brings its parked events back into the journal, the suspension itself is not journaled
+    public void addEvents(Collection<GameEvent> events) {
+        for (GameEvent event : events) {
+            event.init();
+            eventJournal.append(event);
+            if (event instanceof UniverseSuspensionEvent suspension && suspension.getParkedEvents() != null) {
+                suspension.getParkedEvents().forEach(eventJournal::append);
+            }
+        }
+        transferEvents(events);
+    }
+
+    public void transferEvents(Collection<GameEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        producers.increment();
+        try {
+            if (retired) {
+                handOver.accept(events);
+                return;
+            }
+            transferQueue.offer(events);
+            if (waiting) {
+                LockSupport.unpark(eventThread);
+            }
+        } finally {
+            producers.decrement();
+        }
+    }
+
+    public Map<String, Long> drainUniverseLoad() {
+        Map<String, Long> result = new HashMap<>();
+        Iterator<Map.Entry<String, LongAdder>> iterator = universeLoad.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, LongAdder> entry = iterator.next();
+            long load = entry.getValue().sumThenReset();
+            if (load > 0) {
+                result.put(entry.getKey(), load);
+            } else {
+                iterator.remove();
+            }
+        }
+        return result;
     }
 
     public GameThreadStats getStatistics() {
-        return statsAtomicReference.get();
+        return counters.snapshot();
     }
 
+    public double getMomentaryLoadFactor() {
+        return counters.getMomentaryLoadFactor();
+    }
+
+    // a suspended universe is listed as its suspension, so it stays suspended once the queue is backed up
     public Iterator<GameEvent> getQueueIterator() {
-        return eventDelayQueue.iterator();
+        List<GameEvent> events = new ArrayList<>(eventBuffer.snapshot());
+        transferQueue.forEach(events::addAll);
+        blockedEvents.values().forEach(events::addAll);
+        parkedEvents.forEach((universeId, parked) -> events.add(suspensionEvent(universeId, parked)));
+        eventScheduler.iterator().forEachRemaining(events::add);
+        return events.iterator();
     }
 
     @Override
     public void run() {
+        eventThread = Thread.currentThread();
         try {
-            long startTime = System.currentTimeMillis();
+            counters.start(eventThread.getId(), System.currentTimeMillis());
 
             for (;;) {
                 GameEvent event = fetchEvent();
+                (stolenFrom != null ? stolenFrom : this).untrack(event);
                 long cycleStartTime = System.currentTimeMillis();
                 logEvent(event);
                 boolean result = true;
 
                 if (event instanceof SystemEvent) {
                     if (event instanceof QueueTerminationEvent) {
+                        awaitInFlight();
                         break;
                     } else if (event instanceof FastModeSwitchEvent fastModeSwitchEvent) {
                         switchFastMode(fastModeSwitchEvent);
+                    } else if (event instanceof UniverseMigrationEvent universeMigrationEvent) {
+                        migrateUniverse(universeMigrationEvent);
+                    } else if (event instanceof UniverseClockEvent universeClockEvent) {
+                        changeUniverseSpeed(universeClockEvent);
+                    } else if (event instanceof EventCancellationEvent eventCancellationEvent) {
+                        cancelEvent(eventCancellationEvent);
+                    } else if (event instanceof EventRescheduleEvent eventRescheduleEvent) {
+                        rescheduleEvent(eventRescheduleEvent);
+                    } else if (event instanceof UniverseSuspensionEvent universeSuspensionEvent) {
+                        suspendUniverse(universeSuspensionEvent);
+                    } else if (event instanceof UniverseDropEvent universeDropEvent) {
+                        dropUniverse(universeDropEvent);
+                    } else if (event instanceof ThreadRetirementEvent threadRetirementEvent) {
+                        retire(threadRetirementEvent);
+                        break;
                     }
+                } else if (offloadedExecution != null) {
+                    submitEvent(event);
+                    continue;
+                } else if (batchSize > 1 && stolenFrom == null) {
+                    executeBatch(event, cycleStartTime);
+                    continue;
                 } else {
+                    if (!fastMode) {
+                        counters.recordDispatchLag(-event.getDelay(TimeUnit.NANOSECONDS));
+                    }
+                    long executionStartTime = System.nanoTime();
                     result = eventExecutor.executeEvent(event);
+                    long executionTime = System.nanoTime() - executionStartTime;
+                    counters.recordExecutionTime(executionTime);
+                    if (stolenFrom != null) {
+                        stolenFrom.releaseStolen(event);
+                        stolenFrom = null;
+                    } else {
+                        updateUniverseLoad(event.getUniverseId(), executionTime);
+                    }
+                    busy = false;
+                    executingUniverse = null;
+                    eventJournal.complete(event);
                 }
 
-                updateStats(startTime, cycleStartTime, System.currentTimeMillis(), result);
+                counters.record(cycleStartTime, System.currentTimeMillis(), result);
             }
         } catch (InterruptedException e) {
             log.warn("Queue thread was interrupted");
@@ -76,25 +268,382 @@ public class GameEventThread implements Runnable {
     }
 
     private GameEvent fetchEvent() throws InterruptedException {
-        if (fastMode) {
-            GameEvent gameEvent;
-            if (eventDelayQueue.isEmpty()) {
-                gameEvent = eventDelayQueue.take();
+        for (;;) {
+            drainEventBuffer();
+            if (offloadedExecution != null) {
+                processCompletions();
+                while (inFlight >= offloadedExecution.maxInFlight()) {
+                    awaitCompletion();
+                }
+            }
+            if (fastMode) {
+                GameEvent gameEvent = eventScheduler.poll();
+                if (gameEvent != null) {
+                    return gameEvent;
+                }
+            } else if (workStealingGroup == null) {
+                GameEvent gameEvent = eventScheduler.pollExpired();
+                if (gameEvent != null) {
+                    return gameEvent;
+                }
             } else {
-                gameEvent = eventDelayQueue.peek();
+                GameEvent gameEvent = pollOwnEvent();
+                if (gameEvent == null) {
+                    gameEvent = stealEvent();
+                }
                 if (gameEvent != null) {
-                    //noinspection ResultOfMethodCallIgnored
-                    eventDelayQueue.remove(gameEvent);
-                } else {
-                    gameEvent = eventDelayQueue.take();
+                    return gameEvent;
                 }
             }
-            return gameEvent;
+            long delay = eventScheduler.nextDelay(TimeUnit.NANOSECONDS);
+            if (workStealingGroup != null && !fastMode) {
+                delay = Math.min(delay, stealDelay());
+            }
+            awaitEvents(delay);
+        }
+    }
+
+    // each universe of the drained batch is dispatched once, events keep their fire order within a universe
+    private void executeBatch(GameEvent first, long cycleStartTime) {
+        Map<String, List<GameEvent>> batches = new LinkedHashMap<>();
+        for (GameEvent event : drainBatch(first)) {
+            batches.computeIfAbsent(event.getUniverseId(), k -> new ArrayList<>()).add(event);
+        }
+        for (List<GameEvent> batch : batches.values()) {
+            if (!fastMode) {
+                for (GameEvent event : batch) {
+                    counters.recordDispatchLag(-event.getDelay(TimeUnit.NANOSECONDS));
+                }
+            }
+            long executionStartTime = System.nanoTime();
+            int succeeded = eventExecutor.executeEvents(batch);
+            long executionTime = System.nanoTime() - executionStartTime;
+            for (int i = 0; i < batch.size(); i++) {
+                counters.recordExecutionTime(executionTime / batch.size());
+            }
+            updateUniverseLoad(batch.get(0).getUniverseId(), executionTime);
+            batch.forEach(eventJournal::complete);
+            long cycleEndTime = System.currentTimeMillis();
+            counters.record(cycleStartTime, cycleEndTime, succeeded, batch.size() - succeeded);
+            cycleStartTime = cycleEndTime;
+        }
+        busy = false;
+        executingUniverse = null;
+    }
+
+    // system events stay queued and end the batch, fast mode and thieves limit it to the run of the first universe
+    private List<GameEvent> drainBatch(GameEvent first) {
+        Predicate<GameEvent> filter;
+        if (fastMode || workStealingGroup != null) {
+            filter = e -> !(e instanceof SystemEvent) && Objects.equals(e.getUniverseId(), first.getUniverseId());
+        } else {
+            filter = e -> !(e instanceof SystemEvent);
+        }
+        List<GameEvent> events = new ArrayList<>();
+        events.add(first);
+        if (fastMode) {
+            eventScheduler.drainTo(events, batchSize - 1, filter);
         } else {
-            return eventDelayQueue.take();
+            GameEvent gameEvent;
+            while (events.size() < batchSize && (gameEvent = eventScheduler.pollExpired(filter)) != null) {
+                events.add(gameEvent);
+            }
+        }
+        for (int i = 1; i < events.size(); i++) {
+            untrack(events.get(i));
+        }
+        return events;
+    }
+
+    private GameEvent pollOwnEvent() {
+        GameEvent gameEvent;
+        fetchLock.lock();
+        try {
+            gameEvent = eventScheduler.pollExpired();
+            if (gameEvent != null && !(gameEvent instanceof SystemEvent)) {
+                executingUniverse = gameEvent.getUniverseId();
+                busy = true;
+            }
+        } finally {
+            fetchLock.unlock();
+        }
+        if (busy) {
+            awaitStolenUniverse(gameEvent.getUniverseId());
+            long backlogDelay = eventScheduler.nextDelay(TimeUnit.NANOSECONDS);
+            if (backlogDelay != Long.MAX_VALUE) {
+                workStealingGroup.signalBacklog(this, deadline(backlogDelay));
+            }
+        }
+        return gameEvent;
+    }
+
+    private GameEvent stealEvent() {
+        for (GameEventThread victim : workStealingGroup.victims(this)) {
+            GameEvent gameEvent = victim.stealExpired();
+            if (gameEvent != null) {
+                stolenFrom = victim;
+                busy = true;
+                return gameEvent;
+            }
+        }
+        return null;
+    }
+
+    // a due event left on a busy peer is held back by the universe order, so it is only retried periodically
+    private long stealDelay() {
+        long delay = Long.MAX_VALUE;
+        for (GameEventThread victim : workStealingGroup.victims(this)) {
+            delay = Math.min(delay, victim.eventScheduler.nextDelay(TimeUnit.NANOSECONDS));
+        }
+        return delay == 0 ? STEAL_RETRY_DELAY : delay;
+    }
+
+    // called by an idle peer while this thread is executing an event
+    private GameEvent stealExpired() {
+        if (!busy || !fetchLock.tryLock()) {
+            return null;
+        }
+        try {
+            GameEvent gameEvent = eventScheduler.pollExpired(this::isStealable);
+            if (gameEvent != null && gameEvent.getUniverseId() != null && workStealingGroup.isOrderedUniverses()) {
+                stolenUniverses.add(gameEvent.getUniverseId());
+            }
+            return gameEvent;
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private boolean isStealable(GameEvent event) {
+        if (event instanceof SystemEvent) {
+            return false;
+        }
+        String universeId = event.getUniverseId();
+        return universeId == null || !workStealingGroup.isOrderedUniverses() ||
+                !(universeId.equals(executingUniverse) || stolenUniverses.contains(universeId));
+    }
+
+    private void releaseStolen(GameEvent event) {
+        String universeId = event.getUniverseId();
+        if (universeId != null && stolenUniverses.remove(universeId)) {
+            LockSupport.unpark(eventThread);
+        }
+    }
+
+    // a thief started an earlier event of the same universe, it has to finish first
+    private void awaitStolenUniverse(String universeId) {
+        while (universeId != null && stolenUniverses.contains(universeId)) {
+            LockSupport.parkNanos(this, STOLEN_UNIVERSE_WAIT);
+        }
+    }
+
+    boolean isBusy() {
+        return busy;
+    }
+
+    // only a peer that would otherwise sleep past the deadline is woken up, so it can re-arm its timer
+    boolean wakeUpIfWaiting(long deadline) {
+        if (waiting && wakeUpTime > deadline) {
+            LockSupport.unpark(eventThread);
+            return true;
+        }
+        return false;
+    }
+
+    private void drainEventBuffer() {
+        GameEvent gameEvent;
+        int count = 0;
+        while (count++ < eventBuffer.capacity() && (gameEvent = eventBuffer.poll()) != null) {
+            schedule(gameEvent);
+        }
+        Collection<GameEvent> transferredEvents;
+        while ((transferredEvents = transferQueue.poll()) != null) {
+            schedule(transferredEvents);
+        }
+    }
+
+    private void schedule(GameEvent event) {
+        if (!forward(event) && !park(event)) {
+            track(eventScheduler.offer(event));
+        }
+    }
+
+    private void schedule(Collection<GameEvent> events) {
+        if (!migratedUniverses.isEmpty() || !parkedEvents.isEmpty()) {
+            events = events.stream().filter(e -> !forward(e) && !park(e)).toList();
+        }
+        eventScheduler.offerAll(events).forEach(this::track);
+    }
+
+    private boolean forward(GameEvent event) {
+        if (migratedUniverses.isEmpty() || event.getUniverseId() == null) {
+            return false;
+        }
+        GameEventThread target = migratedUniverses.get(event.getUniverseId());
+        if (target == null) {
+            return false;
+        }
+        target.transferEvents(List.of(event));
+        return true;
+    }
+
+    private boolean park(GameEvent event) {
+        if (parkedEvents.isEmpty() || event instanceof SystemEvent || event.getUniverseId() == null) {
+            return false;
+        }
+        Queue<GameEvent> parked = parkedEvents.get(event.getUniverseId());
+        if (parked == null) {
+            return false;
+        }
+        parked.add(event);
+        return true;
+    }
+
+    // universe maps are added and removed by the game thread only
+    private void track(ScheduledEvent scheduled) {
+        GameEvent event = scheduled.getEvent();
+        if (event.getUniverseId() == null || event instanceof SystemEvent) {
+            return;
+        }
+        universeEntries.computeIfAbsent(event.getUniverseId(), k -> new ScheduledEntries()).add(scheduled);
+        if (event.getId() != null) {
+            Map<String, ScheduledEvent> events = scheduledEvents.get(event.getUniverseId());
+            if (events == null) {
+                events = scheduledEvents.computeIfAbsent(event.getUniverseId(), k -> new ConcurrentHashMap<>());
+            }
+            events.put(event.getId(), scheduled);
         }
     }
 
+    // a rescheduled event may already be tracked by a newer entry, the identity index is pruned by the game thread
+    private void untrack(GameEvent event) {
+        if (event.getId() != null && event.getUniverseId() != null && !(event instanceof SystemEvent)) {
+            Map<String, ScheduledEvent> events = scheduledEvents.get(event.getUniverseId());
+            if (events != null) {
+                events.computeIfPresent(event.getId(), (id, scheduled) ->
+                        scheduled.getEvent() == event ? null : scheduled);
+            }
+        }
+    }
+
+    private void awaitEvents(long delay) throws InterruptedException {
+        wakeUpTime = deadline(delay);
+        waiting = true;
+        try {
+            if (eventBuffer.isEmpty() && transferQueue.isEmpty() && completions.isEmpty()) {
+                if (delay == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, delay);
+                }
+            }
+        } finally {
+            waiting = false;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    // events of a universe at its in-flight limit wait here in fetch order
+    private void submitEvent(GameEvent event) {
+        String universeId = event.getUniverseId();
+        if (universeId != null && (blockedEvents.containsKey(universeId) ||
+                universeInFlight.getOrDefault(universeId, 0) >= offloadedExecution.maxInFlightPerUniverse())) {
+            blockedEvents.computeIfAbsent(universeId, k -> new ConcurrentLinkedQueue<>()).add(event);
+            return;
+        }
+        startEvent(event);
+    }
+
+    private void startEvent(GameEvent event) {
+        if (!fastMode) {
+            counters.recordDispatchLag(-event.getDelay(TimeUnit.NANOSECONDS));
+        }
+        inFlight++;
+        counters.recordInFlight(inFlight);
+        if (event.getUniverseId() != null) {
+            universeInFlight.merge(event.getUniverseId(), 1, Integer::sum);
+        }
+        Runnable task = () -> executeOffloaded(event);
+        try {
+            offloadedExecution.executor().execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Event handler executor rejected event {}, running it on the game thread", event.getId());
+            task.run();
+        }
+    }
+
+    private void executeOffloaded(GameEvent event) {
+        long startTime = System.currentTimeMillis();
+        long executionStartTime = System.nanoTime();
+        boolean result;
+        try {
+            result = eventExecutor.executeEvent(event);
+        } catch (RuntimeException e) {
+            log.warn(e.getMessage(), e);
+            result = false;
+        }
+        completions.offer(new OffloadedCompletion(event, result, startTime, System.currentTimeMillis(),
+                System.nanoTime() - executionStartTime));
+        LockSupport.unpark(eventThread);
+    }
+
+    private void processCompletions() {
+        OffloadedCompletion completion;
+        while ((completion = completions.poll()) != null) {
+            GameEvent event = completion.event();
+            inFlight--;
+            counters.recordInFlight(inFlight);
+            counters.recordExecutionTime(completion.executionTime());
+            counters.record(completion.startTime(), completion.endTime(), completion.result());
+            updateUniverseLoad(event.getUniverseId(), completion.executionTime());
+            eventJournal.complete(event);
+            if (event.getUniverseId() != null) {
+                releaseUniverse(event.getUniverseId());
+            }
+        }
+    }
+
+    private void releaseUniverse(String universeId) {
+        universeInFlight.computeIfPresent(universeId, (k, count) -> count > 1 ? count - 1 : null);
+        Queue<GameEvent> blocked = blockedEvents.get(universeId);
+        if (blocked != null) {
+            GameEvent next = blocked.poll();
+            if (blocked.isEmpty()) {
+                blockedEvents.remove(universeId);
+            }
+            if (next != null) {
+                startEvent(next);
+            }
+        }
+    }
+
+    private void awaitCompletion() throws InterruptedException {
+        if (completions.isEmpty()) {
+            LockSupport.park(this);
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        processCompletions();
+    }
+
+    // blocked events are due already, so they are started as their universes free up
+    private void awaitInFlight() throws InterruptedException {
+        if (offloadedExecution != null) {
+            processCompletions();
+            while (inFlight > 0) {
+                awaitCompletion();
+            }
+        }
+    }
+
+    private static long deadline(long delay) {
+        long now = System.nanoTime();
+        return delay >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delay;
+    }
+
     private void logEvent(GameEvent event) {
         log.trace("Event {} with id {} fetched with delay {} ms, fast mode - {}",
                 event.getClass().getSimpleName(),
@@ -108,19 +657,276 @@ public class GameEventThread implements Runnable {
             fastModeTimestamp = event.getStartTime();
         } else if (!event.isEnable() && fastModeTimestamp != -1) {
             long diff = event.getStartTime() - fastModeTimestamp;
-            eventDelayQueue.forEach(e -> e.changeDelay(-diff, TimeUnit.MILLISECONDS));
+            eventScheduler.changeDelay(-diff, TimeUnit.MILLISECONDS);
             fastModeTimestamp = -1;
         }
         fastMode = event.isEnable();
     }
 
-    private void updateStats(long startTime, long cycleStartTime, long cycleEndTime, boolean isSuccessCycle) {
-        GameThreadStats newValue;
-        GameThreadStats current;
-        do {
-            current = statsAtomicReference.get();
-            newValue = GameThreadStats.updateStatsAndGet(current, Thread.currentThread().getId(), startTime,
-                    cycleStartTime, cycleEndTime, isSuccessCycle, loadFactorPrecision);
-        } while(!statsAtomicReference.compareAndSet(current, newValue));
+    // the router is switched only after the hand-off, so the universe never runs on both threads
+    private void migrateUniverse(UniverseMigrationEvent event) throws InterruptedException {
+        String universeId = event.getUniverseId();
+        List<GameEvent> events = new ArrayList<>();
+        Queue<GameEvent> blocked = blockedEvents.remove(universeId);
+        if (blocked != null) {
+            events.addAll(blocked);
+        }
+        awaitUniverse(universeId);
+        drainEventBuffer();
+        events.addAll(eventScheduler.remove(e ->
+                !(e instanceof SystemEvent) && universeId.equals(e.getUniverseId())));
+        removeEntries(universeId);
+        Queue<GameEvent> parked = parkedEvents.remove(universeId);
+        if (parked != null) {
+            events.add(suspensionEvent(universeId, parked));
+        }
+        events.addAll(clockEvents(Set.of(universeId)));
+        eventScheduler.changeSpeed(universeId, 1);
+        universeLoad.remove(universeId);
+        GameEventThread target = event.getTargetThread();
+        target.migratedUniverses.remove(universeId);
+        migratedUniverses.put(universeId, target);
+        target.transferEvents(events);
+        event.getReroute().run();
+        log.debug("Universe {} migrated with {} pending events", universeId, events.size());
+    }
+
+    // blocked events are taken off first, so only the handlers already running are waited for
+    private void awaitUniverse(String universeId) throws InterruptedException {
+        if (offloadedExecution != null) {
+            processCompletions();
+            while (universeInFlight.containsKey(universeId)) {
+                awaitCompletion();
+            }
+        }
+        while (stolenUniverses.contains(universeId)) {
+            LockSupport.parkNanos(this, STOLEN_UNIVERSE_WAIT);
+        }
+    }
+
+    // anything added after the retired flag is forwarded by the producer itself, routed past this thread
+    private void retire(ThreadRetirementEvent event) throws InterruptedException {
+        event.getDetach().run();
+        handOver = event.getHandOver();
+        retired = true;
+        while (producers.sum() > 0) {
+            drainEventBuffer();
+            Thread.onSpinWait();
+        }
+        awaitInFlight();
+        while (!stolenUniverses.isEmpty()) {
+            LockSupport.parkNanos(this, STOLEN_UNIVERSE_WAIT);
+        }
+        while (!eventBuffer.isEmpty() || !transferQueue.isEmpty()) {
+            drainEventBuffer();
+        }
+        List<GameEvent> events = new ArrayList<>();
+        blockedEvents.values().forEach(events::addAll);
+        blockedEvents.clear();
+        events.addAll(eventScheduler.remove(e -> !(e instanceof QueueTerminationEvent)));
+        Set<String> universeIds = events.stream().
+                filter(e -> !(e instanceof SystemEvent) && e.getUniverseId() != null).
+                map(GameEvent::getUniverseId).
+                collect(Collectors.toCollection(HashSet::new));
+        parkedEvents.forEach((universeId, parked) -> events.add(suspensionEvent(universeId, parked)));
+        universeIds.addAll(parkedEvents.keySet());
+        parkedEvents.clear();
+        events.addAll(clockEvents(universeIds));
+        universeEntries.clear();
+        scheduledEvents.clear();
+        universeLoad.clear();
+        handOver.accept(events);
+        log.debug("Game thread retired, {} pending events handed over", events.size());
+    }
+
+    private void changeUniverseSpeed(UniverseClockEvent event) {
+        if (eventScheduler.changeSpeed(event.getUniverseId(), event.getSpeed())) {
+            log.debug("Universe {} clock speed changed to {}", event.getUniverseId(), event.getSpeed());
+        } else {
+            log.warn("Scheduler has no universe clocks, universe {} keeps running in real time", event.getUniverseId());
+        }
+    }
+
+    // the scheduler entry is tombstoned in place and dropped once it reaches the head
+    private void cancelEvent(EventCancellationEvent event) {
+        ScheduledEvent scheduled = removeScheduled(event.getUniverseId(), event.getTargetId());
+        GameEvent target = scheduled != null && scheduled.cancel() ? scheduled.getEvent() :
+                unqueue(event.getUniverseId(), event.getTargetId());
+        if (target != null) {
+            eventJournal.complete(target);
+            log.debug("Event {} of universe {} cancelled", event.getTargetId(), event.getUniverseId());
+        } else {
+            log.debug("Event {} of universe {} is not pending anymore", event.getTargetId(), event.getUniverseId());
+        }
+    }
+
+    private void rescheduleEvent(EventRescheduleEvent event) {
+        ScheduledEvent scheduled = removeScheduled(event.getUniverseId(), event.getTargetId());
+        GameEvent target = scheduled != null ? eventScheduler.remove(scheduled) : null;
+        if (target == null) {
+            target = unqueue(event.getUniverseId(), event.getTargetId());
+        }
+        if (target != null) {
+            eventJournal.complete(target);
+            long startTime = System.currentTimeMillis() +
+                    event.getTargetTimeUnit().toMillis(event.getTargetDelay());
+            target.changeDelay(startTime - target.getStartTime(), TimeUnit.MILLISECONDS);
+            eventJournal.append(target);
+            schedule(target);
+            log.debug("Event {} of universe {} rescheduled with delay {} {}", event.getTargetId(),
+                    event.getUniverseId(), event.getTargetDelay(), event.getTargetTimeUnit());
+        } else {
+            log.debug("Event {} of universe {} is not pending anymore", event.getTargetId(), event.getUniverseId());
+        }
+    }
+
+    private ScheduledEvent removeScheduled(String universeId, String eventId) {
+        if (universeId == null || eventId == null) {
+            return null;
+        }
+        Map<String, ScheduledEvent> events = scheduledEvents.get(universeId);
+        return events != null ? events.remove(eventId) : null;
+    }
+
+    // events off the scheduler are only looked up while their universe is suspended or at its in-flight limit
+    private GameEvent unqueue(String universeId, String eventId) {
+        if (universeId == null) {
+            return null;
+        }
+        GameEvent event = remove(parkedEvents.get(universeId), eventId);
+        if (event == null) {
+            event = remove(blockedEvents.get(universeId), eventId);
+            // an empty blocked queue would hold back the next event of the universe until a completion
+            blockedEvents.computeIfPresent(universeId, (k, blocked) -> blocked.isEmpty() ? null : blocked);
+        }
+        return event;
+    }
+
+    private GameEvent remove(Queue<GameEvent> events, String eventId) {
+        if (events != null) {
+            Iterator<GameEvent> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                GameEvent event = iterator.next();
+                if (Objects.equals(eventId, event.getId())) {
+                    iterator.remove();
+                    return event;
+                }
+            }
+        }
+        return null;
+    }
+
+    // the universe index makes suspending cost O(events of the universe), their start times keep running
+    private void suspendUniverse(UniverseSuspensionEvent event) {
+        String universeId = event.getUniverseId();
+        if (event.isSuspend()) {
+            Queue<GameEvent> parked = parkedEvents.computeIfAbsent(universeId, k -> new ConcurrentLinkedQueue<>());
+            for (ScheduledEvent scheduledEvent : removeEntries(universeId)) {
+                GameEvent parkedEvent = eventScheduler.remove(scheduledEvent);
+                if (parkedEvent != null) {
+                    parked.add(parkedEvent);
+                }
+            }
+            if (event.getParkedEvents() != null) {
+                parked.addAll(event.getParkedEvents());
+            }
+            log.debug("Universe {} suspended with {} parked events", universeId, parked.size());
+        } else {
+            Queue<GameEvent> parked = parkedEvents.remove(universeId);
+            if (parked != null) {
+                schedule(parked);
+                log.debug("Universe {} started with {} parked events", universeId, parked.size());
+            }
+        }
+    }
+
+    // pending entries are tombstoned through the universe index, so dropping costs O(events of the universe)
+    private void dropUniverse(UniverseDropEvent event) {
+        String universeId = event.getUniverseId();
+        int dropped = 0;
+        for (ScheduledEvent scheduledEvent : removeEntries(universeId)) {
+            if (scheduledEvent.cancel()) {
+                eventJournal.complete(scheduledEvent.getEvent());
+                dropped++;
+            }
+        }
+        for (Queue<GameEvent> events : Arrays.asList(parkedEvents.remove(universeId),
+                blockedEvents.remove(universeId))) {
+            if (events != null) {
+                events.forEach(eventJournal::complete);
+                dropped += events.size();
+            }
+        }
+        eventScheduler.changeSpeed(universeId, 1);
+        universeLoad.remove(universeId);
+        log.debug("Universe {} dropped with {} pending events", universeId, dropped);
+    }
+
+    // entries already taken or cancelled are skipped by the caller
+    private Set<ScheduledEvent> removeEntries(String universeId) {
+        scheduledEvents.remove(universeId);
+        ScheduledEntries entries = universeEntries.remove(universeId);
+        return entries != null ? entries.entries : Set.of();
+    }
+
+    // a suspended universe leaving the thread carries its parked events, so none of them is scheduled on the way
+    private GameEvent suspensionEvent(String universeId, Queue<GameEvent> parked) {
+        GameEvent event = UniverseSuspensionEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                suspend(true).
+                parkedEvents(new ArrayList<>(parked)).
+                build();
+        event.init();
+        return event;
+    }
+
+    // universes leaving the thread take their clocks along, the clock is applied right after their events
+    private List<GameEvent> clockEvents(Set<String> universeIds) {
+        List<GameEvent> events = new ArrayList<>();
+        for (String universeId : universeIds) {
+            double speed = eventScheduler.getSpeed(universeId);
+            if (speed != 1) {
+                GameEvent event = UniverseClockEvent.builder().
+                        id(UUID.randomUUID().toString()).
+                        universeId(universeId).
+                        delay(0).
+                        timeUnit(TimeUnit.MILLISECONDS).
+                        speed(speed).
+                        build();
+                event.init();
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void updateUniverseLoad(String universeId, long executionTime) {
+        if (universeId != null) {
+            LongAdder load = universeLoad.get(universeId);
+            if (load == null) {
+                load = universeLoad.computeIfAbsent(universeId, k -> new LongAdder());
+            }
+            load.add(executionTime);
+        }
+    }
+
+    private record OffloadedCompletion(GameEvent event, boolean result, long startTime, long endTime,
+                                       long executionTime) {}
+
+    // fetching an event leaves its entry in place, taken and cancelled entries are pruned whenever the set doubles
+    private static final class ScheduledEntries {
+        private final Set<ScheduledEvent> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int pruneSize = MIN_PRUNE_SIZE;
+
+        void add(ScheduledEvent scheduled) {
+            entries.add(scheduled);
+            if (entries.size() >= pruneSize) {
+                entries.removeIf(entry -> !entry.isPending());
+                pruneSize = Math.max(MIN_PRUNE_SIZE, entries.size() * 2);
+            }
+        }
     }
 }
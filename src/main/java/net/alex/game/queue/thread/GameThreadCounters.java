@@ -0,0 +1,162 @@
+package net.alex.game.queue.thread;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+abstract class GameThreadCountersLeftPadding {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+}
+
+abstract class GameThreadCountersFields extends GameThreadCountersLeftPadding {
+    // even when counters are consistent, odd while the owner thread is updating them
+    long version;
+
+    long threadId;
+    long startTime;
+    long operationsDone;
+    long operationsFailed;
+    long totalExecutionTime;
+    long lastCycleEndTime;
+    long precision;
+    long lastXStartTime;
+    long lastXExecutionTime;
+    long currentXOperationsCount;
+    double momentaryLoadFactor;
+    long inFlight;
+}
+
+abstract class GameThreadCountersRightPadding extends GameThreadCountersFields {
+    long p16, p17, p18, p19, p20, p21, p22, p23;
+    long p24, p25, p26, p27, p28, p29, p30, p31;
+}
+
+public final class GameThreadCounters extends GameThreadCountersRightPadding {
+    private static final VarHandle VERSION;
+    private static final VarHandle MOMENTARY_LOAD_FACTOR;
+    private static final VarHandle IN_FLIGHT;
+
+    private final LatencyHistogram dispatchLag = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VERSION = lookup.findVarHandle(GameThreadCountersFields.class, "version", long.class);
+            MOMENTARY_LOAD_FACTOR = lookup.findVarHandle(GameThreadCountersFields.class,
+                    "momentaryLoadFactor", double.class);
+            IN_FLIGHT = lookup.findVarHandle(GameThreadCountersFields.class, "inFlight", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public GameThreadCounters(long precision) {
+        this.precision = precision;
+    }
+
+    public void start(long threadId, long startTime) {
+        beginWrite();
+        this.threadId = threadId;
+        this.startTime = startTime;
+        this.lastXStartTime = startTime;
+        this.lastCycleEndTime = startTime;
+        endWrite();
+    }
+
+    public void record(long cycleStartTime, long cycleEndTime, boolean isSuccessCycle) {
+        record(cycleStartTime, cycleEndTime, isSuccessCycle ? 1 : 0, isSuccessCycle ? 0 : 1);
+    }
+
+    // a batch is one cycle of several operations, the momentary window closes when the batch crosses its boundary
+    public void record(long cycleStartTime, long cycleEndTime, int succeeded, int failed) {
+        beginWrite();
+        long operationsBefore = operationsDone + operationsFailed;
+        operationsDone += succeeded;
+        operationsFailed += failed;
+        long operationsAfter = operationsDone + operationsFailed;
+        long cycleTime = cycleEndTime - cycleStartTime;
+        totalExecutionTime += cycleTime;
+        lastCycleEndTime = cycleEndTime;
+        if (operationsAfter / precision != operationsBefore / precision) {
+            long lastXTotalTime = cycleEndTime - lastXStartTime;
+            double loadFactor = lastXTotalTime != 0 ? (lastXExecutionTime + cycleTime) / (double) lastXTotalTime * 100 : 0;
+            MOMENTARY_LOAD_FACTOR.setOpaque(this, loadFactor);
+            lastXStartTime = cycleStartTime;
+            lastXExecutionTime = 0;
+            currentXOperationsCount = operationsAfter % precision;
+        } else {
+            lastXExecutionTime += cycleTime;
+            currentXOperationsCount += succeeded + failed;
+        }
+        endWrite();
+    }
+
+    public void recordDispatchLag(long nanos) {
+        dispatchLag.record(nanos);
+    }
+
+    public void recordExecutionTime(long nanos) {
+        executionTime.record(nanos);
+    }
+
+    // offloaded events submitted by the owner thread and not completed yet
+    public void recordInFlight(long count) {
+        IN_FLIGHT.setOpaque(this, count);
+    }
+
+    public double getMomentaryLoadFactor() {
+        return (double) MOMENTARY_LOAD_FACTOR.getOpaque(this);
+    }
+
+    public GameThreadStats snapshot() {
+        for (;;) {
+            long stamp = (long) VERSION.getAcquire(this);
+            if ((stamp & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            GameThreadStats.GameThreadStatsBuilder<?, ?> stats = buildStats();
+            VarHandle.loadLoadFence();
+            if (stamp == (long) VERSION.getOpaque(this)) {
+                return stats.
+                        inFlight((long) IN_FLIGHT.getOpaque(this)).
+                        dispatchLagNanos(dispatchLag.snapshot()).
+                        executionTimeNanos(executionTime.snapshot()).
+                        build();
+            }
+        }
+    }
+
+    private void beginWrite() {
+        VERSION.setOpaque(this, version + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        VERSION.setRelease(this, version + 1);
+    }
+
+    private GameThreadStats.GameThreadStatsBuilder<?, ?> buildStats() {
+        long totalOperations = operationsDone + operationsFailed;
+        long totalTime = lastCycleEndTime - startTime;
+        long totalWaitTime = totalTime - totalExecutionTime;
+        long lastXWaitTime = currentXOperationsCount != 0 ? lastCycleEndTime - lastXStartTime - lastXExecutionTime : 0;
+        return GameThreadStats.builder().
+                threadId(threadId).
+                startTime(startTime).
+                operationsDone(operationsDone).
+                operationsFailed(operationsFailed).
+                totalExecutionTime(totalExecutionTime).
+                totalWaitTime(totalWaitTime).
+                loadFactor(totalTime != 0 ? totalExecutionTime / (double) totalTime * 100 : 0).
+                averageExecutionTime(totalOperations != 0 ? totalExecutionTime / (double) totalOperations : 0).
+                averageWaitTime(totalOperations != 0 ? totalWaitTime / (double) totalOperations : totalWaitTime).
+                lastXStartTime(lastXStartTime).
+                currentXOperationsCount(currentXOperationsCount).
+                momentaryLoadFactorPrecision(precision).
+                lastXExecutionTime(lastXExecutionTime).
+                lastXWaitTime(lastXWaitTime).
+                momentaryLoadFactor(momentaryLoadFactor);
+    }
+}
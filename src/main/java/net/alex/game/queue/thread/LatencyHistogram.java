@@ -0,0 +1,75 @@
+package net.alex.game.queue.thread;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    // 2^5 linear sub-buckets per power of two keep the recorded value within ~3% of the actual one
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private volatile long maxValue;
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int index = indexOf(value);
+        counts.setRelease(index, counts.getPlain(index) + 1);
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    public LatencyStats snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.getAcquire(i);
+            totalCount += snapshot[i];
+        }
+        long max = maxValue;
+        return LatencyStats.builder().
+                count(totalCount).
+                p50(percentile(snapshot, totalCount, 0.5, max)).
+                p99(percentile(snapshot, totalCount, 0.99, max)).
+                p999(percentile(snapshot, totalCount, 0.999, max)).
+                max(max).
+                build();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT | (index & SUB_BUCKET_MASK)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] snapshot, long totalCount, double percentile, long max) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(totalCount * percentile));
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            count += snapshot[i];
+            if (count >= target) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,20 @@
+package net.alex.game.queue.thread;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@NoArgsConstructor
+@EqualsAndHashCode
+@Getter
+@SuperBuilder
+@ToString
+public class LatencyStats {
+    private long count;
+    private long p50;
+    private long p99;
+    private long p999;
+    private long max;
+}
@@ -0,0 +1,86 @@
+package net.alex.game.queue.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class MpscRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    // slot is writable when sequence == position, readable when sequence == position + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        for (;;) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.getAcquire(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    public E poll() {
+        long position = head.getPlain();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.getPlain(index);
+        elements.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        head.setRelease(position + 1);
+        return element;
+    }
+
+    public boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public List<E> snapshot() {
+        List<E> result = new ArrayList<>();
+        long end = tail.get();
+        for (long position = head.get(); position < end; position++) {
+            int index = (int) position & mask;
+            if (sequences.get(index) == position + 1) {
+                E element = elements.get(index);
+                if (element != null) {
+                    result.add(element);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,6 @@
+package net.alex.game.queue.thread;
+
+import java.util.concurrent.Executor;
+
+// handlers run on the executor, the game thread only fires timers and collects completions
+public record OffloadedExecution(Executor executor, int maxInFlight, int maxInFlightPerUniverse) {}
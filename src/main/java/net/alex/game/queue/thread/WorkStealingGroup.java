@@ -0,0 +1,51 @@
+package net.alex.game.queue.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkStealingGroup {
+    private final List<GameEventThread> threads = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextVictim = new AtomicInteger();
+    private final boolean orderedUniverses;
+
+    // with ordered universes two events of the same universe never run at the same time
+    public WorkStealingGroup(boolean orderedUniverses) {
+        this.orderedUniverses = orderedUniverses;
+    }
+
+    public void register(GameEventThread thread) {
+        threads.add(thread);
+    }
+
+    public void unregister(GameEventThread thread) {
+        threads.remove(thread);
+    }
+
+    public boolean isOrderedUniverses() {
+        return orderedUniverses;
+    }
+
+    // victims are visited from a rotating offset so that idle threads don't all pile onto the first one
+    List<GameEventThread> victims(GameEventThread thief) {
+        Object[] snapshot = threads.toArray();
+        List<GameEventThread> result = new ArrayList<>(snapshot.length);
+        int offset = snapshot.length > 0 ? Math.floorMod(nextVictim.getAndIncrement(), snapshot.length) : 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            GameEventThread thread = (GameEventThread) snapshot[(offset + i) % snapshot.length];
+            if (thread != thief && thread.isBusy()) {
+                result.add(thread);
+            }
+        }
+        return result;
+    }
+
+    void signalBacklog(GameEventThread victim, long deadline) {
+        for (GameEventThread thread : threads) {
+            if (thread != victim && thread.wakeUpIfWaiting(deadline)) {
+                return;
+            }
+        }
+    }
+}
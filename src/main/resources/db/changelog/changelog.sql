@@ -87,4 +87,50 @@ CREATE TABLE registration_token
 
 ALTER TABLE registration_token ADD CONSTRAINT uc_registration_token_token UNIQUE (token);
 CREATE INDEX registration_token_email_idx ON registration_token (email);
-CREATE INDEX registration_token_expiry_time_idx ON registration_token (expiry_time);
\ No newline at end of file
+CREATE INDEX registration_token_expiry_time_idx ON registration_token (expiry_time);
+
+-- changeset alex:3
+ALTER TABLE events_backup ADD COLUMN event_data BYTEA;
+ALTER TABLE events_backup ALTER COLUMN event_json DROP NOT NULL;
+
+-- changeset alex:4 dbms:postgresql
+ALTER TABLE events_backup RENAME TO events_backup_legacy;
+ALTER TABLE events_backup_legacy RENAME CONSTRAINT pk_events_backup TO pk_events_backup_legacy;
+
+CREATE TABLE events_backup
+(
+    id          BIGINT generated always as identity,
+    universe_id VARCHAR(50) NOT NULL,
+    fire_at     BIGINT NOT NULL,
+    event_data  BYTEA NOT NULL,
+    CONSTRAINT pk_events_backup PRIMARY KEY (universe_id, id)
+) PARTITION BY HASH (universe_id);
+
+CREATE TABLE events_backup_0 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE events_backup_1 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE events_backup_2 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE events_backup_3 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE events_backup_4 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE events_backup_5 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE events_backup_6 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE events_backup_7 PARTITION OF events_backup FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+CREATE INDEX events_backup_fire_at_idx ON events_backup (fire_at);
+
+INSERT INTO events_backup (universe_id, fire_at, event_data)
+SELECT '', 0, COALESCE(event_data, convert_to(event_json, 'UTF8')) FROM events_backup_legacy;
+DROP TABLE events_backup_legacy;
+
+-- changeset alex:5 dbms:h2
+DROP TABLE events_backup;
+
+CREATE TABLE events_backup
+(
+    id          BIGINT generated always as identity,
+    universe_id VARCHAR(50) NOT NULL,
+    fire_at     BIGINT NOT NULL,
+    event_data  BYTEA NOT NULL,
+    CONSTRAINT pk_events_backup PRIMARY KEY (universe_id, id)
+);
+
+CREATE INDEX events_backup_fire_at_idx ON events_backup (fire_at);
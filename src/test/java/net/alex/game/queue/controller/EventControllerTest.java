@@ -1,6 +1,9 @@
 package net.alex.game.queue.controller;
 
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.AbstractUserTest;
+import net.alex.game.queue.exception.InvalidUniverseSpeedException;
+import net.alex.game.queue.model.out.EventResultOut;
 import net.alex.game.queue.service.EventService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,16 +13,31 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static net.alex.game.model.event.GameEventJSON.toJSON;
+import static net.alex.game.queue.config.security.AccessTokenService.AUTH_TOKEN_HEADER_NAME;
+import static net.alex.game.queue.persistence.RoleName.ADMIN;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-class EventControllerTest {
+class EventControllerTest extends AbstractUserTest {
 
     @Autowired
     private MockMvc mockMvc;
@@ -35,4 +53,102 @@ class EventControllerTest {
                 andDo(print()).
                 andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addEvents() throws Exception {
+        doReturn(List.of(
+                EventResultOut.builder().index(0).id("1").accepted(true).build(),
+                EventResultOut.builder().index(1).id("2").accepted(false).reason("No event thread available").build())).
+                when(service).addEvents(anyList());
+        mockMvc.perform(post("/v1/api/game/events/batch").
+                        contentType(MediaType.APPLICATION_JSON).
+                        content("[" + toJSON(GameEvent.builder().id("1").build()) + "," +
+                                toJSON(GameEvent.builder().id("2").build()) + "]")).
+                andDo(print()).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].accepted").value(true)).
+                andExpect(jsonPath("$[1].accepted").value(false));
+    }
+
+    @Test
+    void addEventsStream() throws Exception {
+        doReturn(List.of(EventResultOut.builder().index(0).id("1").accepted(true).build())).
+                when(service).addEvents(any(InputStream.class));
+        mockMvc.perform(post("/v1/api/game/events/batch").
+                        contentType(EventController.NDJSON_VALUE).
+                        content(toJSON(GameEvent.builder().id("1").build()) + "\n")).
+                andDo(print()).
+                andExpect(status().isOk()).
+                andExpect(jsonPath("$[0].id").value("1"));
+    }
+
+    @Test
+    void changeUniverseSpeed() throws Exception {
+        cleanUserRecords();
+        String token = createTokenWithRole(ADMIN);
+
+        mockMvc.perform(put("/v1/api/game/universes/1/speed").
+                        param("speed", "2.5").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isOk());
+        verify(service).changeUniverseSpeed("1", 2.5);
+    }
+
+    @Test
+    void changeUniverseSpeedInvalid() throws Exception {
+        cleanUserRecords();
+        String token = createTokenWithRole(ADMIN);
+
+        doThrow(new InvalidUniverseSpeedException()).when(service).changeUniverseSpeed(anyString(), eq(-1.0));
+        mockMvc.perform(put("/v1/api/game/universes/1/speed").
+                        param("speed", "-1").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isBadRequest());
+        mockMvc.perform(put("/v1/api/game/universes/1/speed").
+                        param("speed", "fast").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cancelEvent() throws Exception {
+        cleanUserRecords();
+        String token = createTokenWithRole(ADMIN);
+
+        mockMvc.perform(delete("/v1/api/game/universes/1/events/2").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isOk());
+        verify(service).cancelEvent("1", "2");
+    }
+
+    @Test
+    void rescheduleEvent() throws Exception {
+        cleanUserRecords();
+        String token = createTokenWithRole(ADMIN);
+
+        mockMvc.perform(put("/v1/api/game/universes/1/events/2/delay").
+                        param("delay", "5").
+                        param("timeUnit", "SECONDS").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isOk());
+        verify(service).rescheduleEvent("1", "2", 5, TimeUnit.SECONDS);
+
+        mockMvc.perform(put("/v1/api/game/universes/1/events/3/delay").
+                        param("delay", "100").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isOk());
+        verify(service).rescheduleEvent("1", "3", 100, TimeUnit.MILLISECONDS);
+
+        mockMvc.perform(put("/v1/api/game/universes/1/events/2/delay").
+                        param("delay", "soon").
+                        header(AUTH_TOKEN_HEADER_NAME, token)).
+                andDo(print()).
+                andExpect(status().isBadRequest());
+    }
+}
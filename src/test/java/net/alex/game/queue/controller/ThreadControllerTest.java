@@ -1,6 +1,8 @@
 package net.alex.game.queue.controller;
 
 import net.alex.game.queue.AbstractUserTest;
+import net.alex.game.queue.model.RestoreState;
+import net.alex.game.queue.model.out.RestoreStatusOut;
 import net.alex.game.queue.service.ThreadService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,4 +50,12 @@ class ThreadControllerTest extends AbstractUserTest {
                 andDo(print()).
                 andExpect(status().isOk());
     }
+
+    @Test
+    void getRestoreStatus() throws Exception {
+        doReturn(RestoreStatusOut.builder().state(RestoreState.READY).build()).when(service).getRestoreStatus();
+        mockMvc.perform(get("/v1/api/game/threads/restore").contentType(MediaType.APPLICATION_JSON)).
+                andDo(print()).
+                andExpect(status().isOk());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package net.alex.game.queue.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.alex.game.model.event.GameEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class UniverseSuspensionEventTest {
+    @Test
+    void testDeserializationUniverseSuspensionEvent() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writer().writeValueAsString(UniverseSuspensionEvent.builder().universeId("1").
+                id("321").delay(0).timeUnit(TimeUnit.MILLISECONDS).suspend(true).
+                parkedEvents(List.of(
+                        GameEvent.builder().universeId("1").id("1a").delay(5).timeUnit(TimeUnit.SECONDS).build(),
+                        GameEvent.builder().universeId("1").id("1b").delay(1).timeUnit(TimeUnit.HOURS).build())).
+                build());
+        log.debug(json);
+        UniverseSuspensionEvent event = mapper.reader().readValue(json, UniverseSuspensionEvent.class);
+        log.debug("{}", event);
+        assertNotNull(event);
+        assertEquals("1", event.getUniverseId());
+        assertEquals("321", event.getId());
+        assertTrue(event.isSuspend());
+        assertEquals(List.of("1a", "1b"), event.getParkedEvents().stream().map(GameEvent::getId).toList());
+        assertEquals(TimeUnit.HOURS, event.getParkedEvents().get(1).getTimeUnit());
+        assertEquals(UniverseSuspensionEvent.class.getName(), event.getEventClass());
+    }
+}
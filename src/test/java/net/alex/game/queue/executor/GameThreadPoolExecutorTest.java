@@ -0,0 +1,125 @@
+package net.alex.game.queue.executor;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.ExecutorConfig;
+import net.alex.game.queue.scheduler.HeapEventScheduler;
+import net.alex.game.queue.scheduler.SchedulerType;
+import net.alex.game.queue.serialize.CodecType;
+import net.alex.game.queue.serialize.DisabledEventJournal;
+import net.alex.game.queue.serialize.EventRecord;
+import net.alex.game.queue.serialize.EventSerializer;
+import net.alex.game.queue.thread.GameEventThread;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameThreadPoolExecutorTest {
+    private static final long SCALE_INTERVAL = 1000;
+
+    private final Map<GameEventThread, Long> executionTimes = new IdentityHashMap<>();
+    private final List<Integer> activeCountsOnBackup = new ArrayList<>();
+    private GameThreadPoolExecutor executor;
+    private long now;
+
+    @BeforeEach
+    void beforeEach() throws ReflectiveOperationException {
+        ExecutorConfig executorConfig = new ExecutorConfig(2, 1, 3,
+                80, 20, Long.MAX_VALUE, 2, 10, SchedulerType.HEAP,
+                1, 64, 1, 75, Long.MAX_VALUE, false, true, ExecutionMode.INLINE, 1, 1);
+        executor = new GameThreadPoolExecutor(executorConfig, new BackupEventSerializer(),
+                DisabledEventJournal.INSTANCE, HeapEventScheduler::new, event -> {}, false);
+        invoke("startUp");
+        now = System.currentTimeMillis();
+    }
+
+    @AfterEach
+    void afterEach() throws ReflectiveOperationException {
+        invoke("shutdownAndWait");
+    }
+
+    @Test
+    void testScaleUpOnHighLoad() {
+        // the first sample only sets the baseline
+        scale(0);
+        scale(90);
+        assertEquals(2, executor.getThreadStatisticsList().size());
+        scale(90);
+        assertEquals(3, executor.getThreadStatisticsList().size());
+        scale(90);
+        scale(90);
+        assertEquals(3, executor.getThreadStatisticsList().size());
+    }
+
+    @Test
+    void testScaleDownOnLowLoad() {
+        scale(0);
+        scale(90);
+        scale(90);
+        assertEquals(3, executor.getThreadStatisticsList().size());
+
+        scale(50);
+        scale(10);
+        assertEquals(3, executor.getThreadStatisticsList().size());
+        scale(10);
+        assertEquals(2, executor.getThreadStatisticsList().size());
+        scale(10);
+        scale(10);
+        assertEquals(1, executor.getThreadStatisticsList().size());
+        scale(10);
+        scale(10);
+        assertEquals(1, executor.getThreadStatisticsList().size());
+    }
+
+    @Test
+    void testRetiredThreadLeavesRouter() {
+        scale(0);
+        scale(10);
+        assertEquals(1, executor.getThreadStatisticsList().size());
+
+        GameEventThread remaining = executor.getVacantThread();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> IntStream.range(0, 100).
+                allMatch(i -> executor.getUniverseThread("universe-" + i) == remaining));
+    }
+
+    @Test
+    void testBackupAfterThreadsStopped() throws ReflectiveOperationException {
+        GameEvent event = GameEvent.builder().id("pending").universeId("1").delay(1).timeUnit(TimeUnit.HOURS).build();
+        executor.getUniverseThread("1").addEvent(event);
+
+        invoke("shutdownAndWait");
+        assertEquals(List.of(0), activeCountsOnBackup);
+    }
+
+    // every active thread reports the given utilization over one scale interval
+    private void scale(long load) {
+        now += SCALE_INTERVAL;
+        executor.scale(now, thread -> executionTimes.merge(thread, load * SCALE_INTERVAL / 100, Long::sum));
+    }
+
+    private void invoke(String lifecycleMethod) throws ReflectiveOperationException {
+        Method method = GameThreadPoolExecutor.class.getDeclaredMethod(lifecycleMethod);
+        method.setAccessible(true);
+        method.invoke(executor);
+    }
+
+    // records how many game threads were still running when a chunk was backed up
+    private class BackupEventSerializer extends EventSerializer {
+        BackupEventSerializer() {
+            super(1, CodecType.BINARY);
+        }
+        public Iterator<List<byte[]>> readFromDataStore(int chunkSize) {
+            return Collections.emptyIterator();
+        }
+        public void writeToDataStore(List<EventRecord> chunk) {
+            activeCountsOnBackup.add(executor.getActiveCount());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.alex.game.queue.executor;
+
+import net.alex.game.queue.thread.GameEventThread;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniverseRouterTest {
+
+    @Test
+    void testRouteIsStable() {
+        UniverseRouter router = new UniverseRouter();
+        assertNull(router.route("universe"));
+
+        List<GameEventThread> threads = createThreads(router, 4);
+        for (int i = 0; i < 100; i++) {
+            String universeId = UUID.randomUUID().toString();
+            GameEventThread thread = router.route(universeId);
+            assertTrue(threads.contains(thread));
+            assertSame(thread, router.route(universeId));
+        }
+    }
+
+    @Test
+    void testRouteSpreadsUniverses() {
+        UniverseRouter router = new UniverseRouter();
+        List<GameEventThread> threads = createThreads(router, 4);
+
+        Map<GameEventThread, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            counts.merge(router.route(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        assertEquals(threads.size(), counts.size());
+        counts.values().forEach(count -> assertTrue(count > 500, "Unbalanced routing " + counts.values()));
+    }
+
+    @Test
+    void testAssign() {
+        UniverseRouter router = new UniverseRouter();
+        List<GameEventThread> threads = createThreads(router, 2);
+
+        String universeId = UUID.randomUUID().toString();
+        GameEventThread other = router.route(universeId) == threads.get(0) ? threads.get(1) : threads.get(0);
+        router.assign(universeId, other);
+        assertSame(other, router.route(universeId));
+
+        router.removeThread(other);
+        assertNotSame(other, router.route(universeId));
+    }
+
+    @Test
+    void testRemoveThread() {
+        UniverseRouter router = new UniverseRouter();
+        List<GameEventThread> threads = createThreads(router, 3);
+
+        List<String> universes = new ArrayList<>();
+        Map<String, GameEventThread> routes = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String universeId = UUID.randomUUID().toString();
+            universes.add(universeId);
+            routes.put(universeId, router.route(universeId));
+        }
+
+        GameEventThread removed = threads.get(0);
+        router.removeThread(removed);
+        for (String universeId : universes) {
+            GameEventThread thread = router.route(universeId);
+            assertNotSame(removed, thread);
+            if (routes.get(universeId) != removed) {
+                assertSame(routes.get(universeId), thread);
+            }
+        }
+    }
+
+    private List<GameEventThread> createThreads(UniverseRouter router, int count) {
+        List<GameEventThread> threads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GameEventThread thread = GameEventThread.builder().
+                    eventExecutor(new GameEventExecutor()).
+                    loadFactorPrecision(1000).
+                    build();
+            router.addThread("game-thread-" + i, thread);
+            threads.add(thread);
+        }
+        return threads;
+    }
+}
@@ -0,0 +1,99 @@
+package net.alex.game.queue.persistence.repo;
+
+import net.alex.game.queue.persistence.entity.EventBackupEntity;
+import net.alex.game.queue.serialize.EventRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EventBackupNativeRepoTest {
+
+    @Autowired
+    private EventBackupNativeRepo eventBackupNativeRepo;
+
+    @BeforeEach
+    void beforeEach() {
+        eventBackupNativeRepo.readAndDelete(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testReadAndDeleteInFireOrder() throws SQLException {
+        eventBackupNativeRepo.writeAll(List.of(
+                new EventRecord("1", 300, new byte[]{1}),
+                new EventRecord("2", 100, new byte[]{2}),
+                new EventRecord("1", 200, new byte[]{3})));
+
+        List<EventBackupEntity> first = eventBackupNativeRepo.readAndDelete(2);
+        assertEquals(List.of(100L, 200L), first.stream().map(EventBackupEntity::getFireAt).toList());
+        List<EventBackupEntity> second = eventBackupNativeRepo.readAndDelete(2);
+        assertEquals(List.of(300L), second.stream().map(EventBackupEntity::getFireAt).toList());
+        assertTrue(eventBackupNativeRepo.readAndDelete(2).isEmpty());
+    }
+
+    @Test
+    void testDeleteUniverse() throws SQLException {
+        eventBackupNativeRepo.writeAll(List.of(
+                new EventRecord("1", 100, new byte[]{1}),
+                new EventRecord("2", 200, new byte[]{2}),
+                new EventRecord("1", 300, new byte[]{3})));
+
+        assertEquals(2, eventBackupNativeRepo.deleteUniverse("1"));
+        List<EventBackupEntity> result = eventBackupNativeRepo.readAndDelete(10);
+        assertEquals(List.of("2"), result.stream().map(EventBackupEntity::getUniverseId).toList());
+        assertNotNull(result.get(0).getId());
+    }
+
+    @Test
+    void testInsertBatch() throws SQLException {
+        eventBackupNativeRepo.writeAll(List.of(
+                new EventRecord("1", 100, new byte[]{1, 2, 3}),
+                new EventRecord(null, 200, new byte[]{(byte) 0xff})));
+
+        List<EventBackupEntity> result = eventBackupNativeRepo.readAndDelete(10);
+        assertEquals(2, result.size());
+        assertEquals("1", result.get(0).getUniverseId());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.get(0).getEventData());
+        assertEquals("", result.get(1).getUniverseId());
+        assertEquals(200L, result.get(1).getFireAt());
+        assertArrayEquals(new byte[]{(byte) 0xff}, result.get(1).getEventData());
+    }
+
+    @Test
+    void testCopyLineEscapesText() {
+        EventBackupNativeRepo.CopyLine line = new EventBackupNativeRepo.CopyLine();
+        line.encode(new EventRecord("a\tb\nc\\d\re", 42, new byte[]{0x00, 0x7f, (byte) 0xff, 0x10}));
+        assertEquals("a\\tb\\nc\\\\d\\re\t42\t\\\\x007fff10\n", copyLine(line));
+
+        line.encode(new EventRecord("\u00e9t\u00e9", 7, new byte[]{1}));
+        assertArrayEquals("\u00e9t\u00e9\t7\t\\\\x01\n".getBytes(StandardCharsets.UTF_8), line.toByteArray());
+    }
+
+    @Test
+    void testCopyLineWithoutUniverse() {
+        EventBackupNativeRepo.CopyLine line = new EventBackupNativeRepo.CopyLine();
+        line.encode(new EventRecord(null, -1, new byte[0]));
+        assertEquals("\t-1\t\\\\x\n", copyLine(line));
+    }
+
+    @Test
+    void testCopyLineIsReused() {
+        EventBackupNativeRepo.CopyLine line = new EventBackupNativeRepo.CopyLine();
+        line.encode(new EventRecord("1", 1, new byte[1000]));
+        assertEquals("1\t1\t\\\\x".length() + 2000 + 1, line.toByteArray().length);
+
+        line.encode(new EventRecord("2", 2, new byte[]{0x0a}));
+        assertEquals("2\t2\t\\\\x0a\n", copyLine(line));
+    }
+
+    private static String copyLine(EventBackupNativeRepo.CopyLine line) {
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeapEventSchedulerTest {
+
+    @Test
+    void testDrainInFireOrder() {
+        HeapEventScheduler scheduler = new HeapEventScheduler();
+        int count = 200_000;
+        List<GameEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(createEvent(String.valueOf(i), (i * 7919L) % count, TimeUnit.SECONDS));
+        }
+        scheduler.offerAll(events);
+
+        List<GameEvent> result = new ArrayList<>(count);
+        while (scheduler.drainTo(result, 64, e -> true) > 0) {
+            assertNull(scheduler.pollExpired());
+        }
+        assertEquals(count, result.size());
+        for (int i = 1; i < count; i++) {
+            assertTrue(result.get(i - 1).getStartTime() <= result.get(i).getStartTime());
+        }
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testPollWithFilter() {
+        HeapEventScheduler scheduler = new HeapEventScheduler();
+        scheduler.offer(createEvent("1", 0, TimeUnit.MILLISECONDS));
+        scheduler.offer(createEvent("2", 1, TimeUnit.HOURS));
+
+        assertNull(scheduler.pollExpired(e -> false));
+        assertEquals("1", scheduler.pollExpired(e -> true).getId());
+        assertNull(scheduler.pollExpired(e -> true));
+        assertNull(scheduler.poll(e -> false));
+        assertEquals("2", scheduler.poll(e -> true).getId());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testCancel() {
+        HeapEventScheduler scheduler = new HeapEventScheduler();
+        ScheduledEvent first = scheduler.offer(createEvent("1", 0, TimeUnit.MILLISECONDS));
+        scheduler.offer(createEvent("2", 1, TimeUnit.HOURS));
+        ScheduledEvent last = scheduler.offer(createEvent("3", 2, TimeUnit.HOURS));
+
+        assertTrue(first.cancel());
+        assertTrue(last.cancel());
+        assertNull(scheduler.pollExpired());
+        assertTrue(scheduler.nextDelay(TimeUnit.MINUTES) > 50);
+        assertEquals(List.of("2"), scheduler.remove(e -> true).stream().map(GameEvent::getId).toList());
+        assertTrue(scheduler.isEmpty());
+
+        ScheduledEvent taken = scheduler.offer(createEvent("4", 0, TimeUnit.MILLISECONDS));
+        assertEquals("4", scheduler.poll().getId());
+        assertFalse(taken.cancel());
+    }
+
+    @Test
+    void testEqualDeadlinesInOfferOrder() {
+        HeapEventScheduler scheduler = new HeapEventScheduler();
+        GameEvent first = createEvent("0", 0, TimeUnit.MILLISECONDS);
+        List<GameEvent> events = new ArrayList<>();
+        for (int i = 1; i < 100; i++) {
+            GameEvent event = createEvent(String.valueOf(i), 0, TimeUnit.MILLISECONDS);
+            event.changeDelay(first.getStartTime() - event.getStartTime(), TimeUnit.MILLISECONDS);
+            events.add(event);
+        }
+        scheduler.offer(first);
+        events.subList(0, 50).forEach(scheduler::offer);
+        scheduler.offerAll(events.subList(50, events.size()));
+
+        List<String> result = new ArrayList<>();
+        GameEvent event;
+        while ((event = scheduler.pollExpired()) != null) {
+            result.add(event.getId());
+        }
+        assertEquals(IntStream.range(0, 100).mapToObj(String::valueOf).toList(), result);
+    }
+
+    private GameEvent createEvent(String id, long delay, TimeUnit timeUnit) {
+        GameEvent event = GameEvent.builder().universeId("1").id(id).delay(delay).timeUnit(timeUnit).build();
+        event.init();
+        return event;
+    }
+}
@@ -0,0 +1,253 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelEventSchedulerTest {
+
+    @Test
+    void testPollExpiredInDelayOrder() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        long[] delays = {100, 0, 65, 300, 64, 5};
+        for (long delay : delays) {
+            scheduler.offer(createEvent(String.valueOf(delay), delay, TimeUnit.MILLISECONDS));
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<String> result = new ArrayList<>();
+        while (result.size() < delays.length) {
+            await().atMost(1, TimeUnit.SECONDS).until(() -> scheduler.nextDelay(TimeUnit.MILLISECONDS) == 0);
+            GameEvent event = scheduler.pollExpired();
+            if (event != null) {
+                result.add(event.getId());
+            }
+        }
+
+        assertEquals(List.of("0", "5", "64", "65", "100", "300"), result);
+        assertTrue(System.currentTimeMillis() - startTime >= 299);
+        assertTrue(scheduler.isEmpty());
+        assertEquals(Long.MAX_VALUE, scheduler.nextDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testPollIgnoresDelayAndKeepsOrder() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        Random random = new Random(42);
+        List<GameEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            GameEvent event = createEvent(String.valueOf(i), random.nextInt(Integer.MAX_VALUE), TimeUnit.SECONDS);
+            events.add(event);
+            scheduler.offer(event);
+        }
+        events.sort(Comparator.comparingLong(e -> e.getDelay(TimeUnit.MILLISECONDS)));
+
+        List<GameEvent> result = new ArrayList<>();
+        GameEvent event = scheduler.poll();
+        while (event != null) {
+            result.add(event);
+            event = scheduler.poll();
+        }
+
+        assertEquals(events.size(), result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getDelay(TimeUnit.SECONDS) <= result.get(i).getDelay(TimeUnit.SECONDS));
+        }
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testOfferAll() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        scheduler.offer(createEvent("10", 10, TimeUnit.SECONDS));
+        scheduler.offerAll(List.of(
+                createEvent("30", 30, TimeUnit.SECONDS),
+                createEvent("0", 0, TimeUnit.SECONDS),
+                createEvent("20", 20, TimeUnit.SECONDS)));
+
+        List<String> result = new ArrayList<>();
+        GameEvent event = scheduler.poll();
+        while (event != null) {
+            result.add(event.getId());
+            event = scheduler.poll();
+        }
+        assertEquals(List.of("0", "10", "20", "30"), result);
+    }
+
+    @Test
+    void testChangeDelay() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        scheduler.offer(createEvent("1", 1, TimeUnit.HOURS));
+        assertTrue(scheduler.iterator().hasNext());
+        assertNull(scheduler.pollExpired());
+        assertTrue(scheduler.nextDelay(TimeUnit.MILLISECONDS) > 0);
+
+        scheduler.changeDelay(-1, TimeUnit.HOURS);
+
+        assertEquals(0, scheduler.nextDelay(TimeUnit.MILLISECONDS));
+        assertEquals("1", scheduler.pollExpired().getId());
+        assertFalse(scheduler.iterator().hasNext());
+    }
+
+    @Test
+    void testChangeDelayShiftsOnlyPendingEvents() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        GameEvent pending = createEvent("1", 1, TimeUnit.HOURS);
+        long startTime = pending.getStartTime();
+        scheduler.offer(pending);
+        scheduler.changeDelay(-1, TimeUnit.HOURS);
+        scheduler.offer(createEvent("2", 1, TimeUnit.HOURS));
+
+        GameEvent event = scheduler.pollExpired();
+        assertEquals("1", event.getId());
+        assertEquals(startTime - TimeUnit.HOURS.toMillis(1), event.getStartTime());
+        assertNull(scheduler.pollExpired());
+        assertTrue(scheduler.iterator().next().getDelay(TimeUnit.MINUTES) > 50);
+    }
+
+    @Test
+    void testPollExpiredWithFilter() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        scheduler.offer(createEvent("1", 0, TimeUnit.MILLISECONDS));
+        scheduler.offer(createEvent("2", 1, TimeUnit.HOURS));
+
+        assertNull(scheduler.pollExpired(e -> false));
+        assertNull(scheduler.pollExpired(e -> "2".equals(e.getId())));
+        assertEquals("1", scheduler.pollExpired(e -> true).getId());
+        assertNull(scheduler.pollExpired(e -> true));
+        assertFalse(scheduler.isEmpty());
+    }
+
+    @Test
+    void testPollWithFilter() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        scheduler.offer(createEvent("1", 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("2", 2, TimeUnit.HOURS));
+
+        assertNull(scheduler.poll(e -> "2".equals(e.getId())));
+        assertEquals("1", scheduler.poll(e -> true).getId());
+        assertEquals("2", scheduler.poll(e -> true).getId());
+        assertNull(scheduler.poll(e -> true));
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testDrainTo() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        for (int i = 0; i < 5; i++) {
+            scheduler.offer(createEvent(String.valueOf(i), i, TimeUnit.HOURS));
+        }
+        List<GameEvent> result = new ArrayList<>();
+
+        assertEquals(2, scheduler.drainTo(result, 2, e -> true));
+        assertEquals(1, scheduler.drainTo(result, 5, e -> !"3".equals(e.getId())));
+        assertEquals(List.of("0", "1", "2"), result.stream().map(GameEvent::getId).toList());
+        assertEquals(2, scheduler.drainTo(result, 5, e -> true));
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testCancel() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        ScheduledEvent ready = scheduler.offer(createEvent("1", 0, TimeUnit.MILLISECONDS));
+        scheduler.offer(createEvent("2", 0, TimeUnit.MILLISECONDS));
+        ScheduledEvent wheel = scheduler.offer(createEvent("3", 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("4", 2, TimeUnit.HOURS));
+
+        assertTrue(ready.cancel());
+        assertTrue(wheel.cancel());
+        assertFalse(wheel.cancel());
+        List<String> pending = new ArrayList<>();
+        scheduler.iterator().forEachRemaining(e -> pending.add(e.getId()));
+        assertEquals(List.of("2", "4"), pending);
+        assertEquals("2", scheduler.pollExpired().getId());
+        assertEquals("4", scheduler.poll().getId());
+        assertNull(scheduler.poll());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testRemoveScheduled() {
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(1);
+        ScheduledEvent first = scheduler.offer(createEvent("1", 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("2", 2, TimeUnit.HOURS));
+        scheduler.changeDelay(-30, TimeUnit.MINUTES);
+
+        GameEvent removed = scheduler.remove(first);
+        assertEquals("1", removed.getId());
+        assertTrue(removed.getDelay(TimeUnit.MINUTES) < 31);
+        assertNull(scheduler.remove(first));
+        assertFalse(first.cancel());
+        assertEquals("2", scheduler.poll().getId());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testDeadlineOrderWithinTick() {
+        long tickDuration = 100;
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(tickDuration);
+        // both deadlines fall into the same tick a few ticks ahead
+        long tickStart = (System.currentTimeMillis() / tickDuration + 3) * tickDuration;
+        scheduler.offer(createEvent("late", tickStart + 80));
+        scheduler.offer(createEvent("early", tickStart + 20));
+        scheduler.offer(createEvent("same", tickStart + 20));
+        scheduler.offerAll(List.of(createEvent("middle", tickStart + 50), createEvent("first", tickStart + 10)));
+
+        List<String> result = new ArrayList<>();
+        GameEvent event;
+        while ((event = scheduler.poll()) != null) {
+            result.add(event.getId());
+        }
+        assertEquals(List.of("first", "early", "same", "middle", "late"), result);
+
+        scheduler.offer(createEvent("later", System.currentTimeMillis() + 60));
+        scheduler.offer(createEvent("sooner", System.currentTimeMillis() + 30));
+        result.clear();
+        while (result.size() < 2) {
+            await().atMost(1, TimeUnit.SECONDS).until(() -> scheduler.nextDelay(TimeUnit.MILLISECONDS) == 0);
+            if ((event = scheduler.pollExpired()) != null) {
+                result.add(event.getId());
+            }
+        }
+        assertEquals(List.of("sooner", "later"), result);
+    }
+
+    @Test
+    void testPeekDeadline() {
+        long tickDuration = 100;
+        TimingWheelEventScheduler scheduler = new TimingWheelEventScheduler(tickDuration);
+        assertEquals(Long.MAX_VALUE, scheduler.peekDeadline());
+
+        // the slot starts earlier than both deadlines, the earlier deadline is reported
+        long tickStart = (System.currentTimeMillis() / tickDuration + 3) * tickDuration;
+        scheduler.offer(createEvent("late", tickStart + 80));
+        ScheduledEvent early = scheduler.offer(createEvent("early", tickStart + 20));
+        scheduler.offer(createEvent("distant", tickStart + TimeUnit.HOURS.toMillis(1)));
+        assertEquals(tickStart + 20, scheduler.peekDeadline());
+
+        scheduler.remove(early);
+        assertEquals(tickStart + 80, scheduler.peekDeadline());
+        assertEquals("late", scheduler.poll().getId());
+        assertEquals(tickStart + TimeUnit.HOURS.toMillis(1), scheduler.peekDeadline());
+    }
+
+    private GameEvent createEvent(String id, long startTime) {
+        GameEvent event = createEvent(id, 0, TimeUnit.MILLISECONDS);
+        event.changeDelay(startTime - event.getStartTime(), TimeUnit.MILLISECONDS);
+        return event;
+    }
+
+    private GameEvent createEvent(String id, long delay, TimeUnit timeUnit) {
+        GameEvent event = GameEvent.builder().universeId("1").id(id).delay(delay).timeUnit(timeUnit).build();
+        event.init();
+        return event;
+    }
+}
@@ -0,0 +1,91 @@
+package net.alex.game.queue.scheduler;
+
+import net.alex.game.model.event.GameEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniverseEventSchedulerTest {
+
+    @Test
+    void testUniverseSpeed() {
+        UniverseEventScheduler scheduler = new UniverseEventScheduler(clock -> new TimingWheelEventScheduler(1, clock));
+        scheduler.offer(createEvent("fast", "1", 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("normal", "2", 1, TimeUnit.HOURS));
+        assertTrue(scheduler.changeSpeed("1", TimeUnit.HOURS.toMillis(1) / 100.0));
+        assertEquals(TimeUnit.HOURS.toMillis(1) / 100.0, scheduler.getSpeed("1"));
+        assertEquals(1, scheduler.getSpeed("2"));
+
+        List<GameEvent> polled = new ArrayList<>();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> {
+            GameEvent event = scheduler.pollExpired();
+            return event != null && polled.add(event);
+        });
+        assertEquals("fast", polled.get(0).getId());
+        assertNull(scheduler.pollExpired());
+        assertTrue(scheduler.nextDelay(TimeUnit.MINUTES) > 50);
+    }
+
+    @Test
+    void testPausedUniverse() {
+        UniverseEventScheduler scheduler = new UniverseEventScheduler(HeapEventScheduler::new);
+        scheduler.offer(createEvent("paused", "1", 0, TimeUnit.MILLISECONDS));
+        scheduler.changeSpeed("1", 0);
+
+        assertNull(scheduler.pollExpired());
+        assertNull(scheduler.poll());
+        assertEquals(Long.MAX_VALUE, scheduler.nextDelay(TimeUnit.MILLISECONDS));
+        assertFalse(scheduler.isEmpty());
+
+        scheduler.changeSpeed("1", 1);
+        assertEquals("paused", scheduler.pollExpired().getId());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    @Test
+    void testChangeDelayMovesUniverseClocks() {
+        UniverseEventScheduler scheduler = new UniverseEventScheduler(clock -> new TimingWheelEventScheduler(1, clock));
+        scheduler.offer(createEvent("shared", null, 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("running", "1", 1, TimeUnit.HOURS));
+        scheduler.offer(createEvent("paused", "2", 1, TimeUnit.HOURS));
+        scheduler.changeSpeed("2", 0);
+
+        scheduler.changeDelay(-1, TimeUnit.HOURS);
+
+        assertEquals(0, scheduler.nextDelay(TimeUnit.MILLISECONDS));
+        assertEquals(List.of("shared", "running"), List.of(scheduler.pollExpired().getId(), scheduler.pollExpired().getId()));
+        assertNull(scheduler.pollExpired());
+        GameEvent paused = scheduler.remove(e -> true).get(0);
+        assertEquals("paused", paused.getId());
+        assertTrue(paused.getDelay(TimeUnit.MINUTES) > 50);
+        assertEquals(0, scheduler.getSpeed("2"));
+    }
+
+    @Test
+    void testUniversesOrderedByHeadDeadline() {
+        // both heads share a wheel slot, the universe is keyed on its head rather than on the slot start
+        UniverseEventScheduler scheduler = new UniverseEventScheduler(
+                clock -> new TimingWheelEventScheduler(TimeUnit.HOURS.toMillis(1), clock));
+        scheduler.offer(createEvent("late", "1", 50, TimeUnit.SECONDS));
+        scheduler.offer(createEvent("shared", null, 30, TimeUnit.SECONDS));
+        scheduler.offer(createEvent("early", "2", 10, TimeUnit.SECONDS));
+
+        List<String> polled = new ArrayList<>();
+        GameEvent event;
+        while ((event = scheduler.poll()) != null) {
+            polled.add(event.getId());
+        }
+        assertEquals(List.of("early", "shared", "late"), polled);
+    }
+
+    private GameEvent createEvent(String id, String universeId, long delay, TimeUnit timeUnit) {
+        GameEvent event = GameEvent.builder().universeId(universeId).id(id).delay(delay).timeUnit(timeUnit).build();
+        event.init();
+        return event;
+    }
+}
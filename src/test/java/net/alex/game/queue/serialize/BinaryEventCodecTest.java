@@ -0,0 +1,77 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.InitStatisticsEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryEventCodecTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    @Test
+    void encodeDecodeTest() throws IOException {
+        GameEvent event = GameEvent.builder().universeId("universe").
+                id("event").delay(-15).timeUnit(TimeUnit.SECONDS).build();
+        event.init();
+        event.setBackupTime(event.getStartTime() - 3000);
+
+        GameEvent result = codec.decode(codec.encode(event));
+        assertEquals(GameEvent.class, result.getClass());
+        assertEquals(event.getId(), result.getId());
+        assertEquals(event.getUniverseId(), result.getUniverseId());
+        assertEquals(event.getDelay(), result.getDelay());
+        assertEquals(event.getTimeUnit(), result.getTimeUnit());
+        assertEquals(event.getStartTime(), result.getStartTime());
+        assertEquals(event.getBackupTime(), result.getBackupTime());
+    }
+
+    @Test
+    void nullUniverseTest() throws IOException {
+        GameEvent event = GameEvent.builder().id("event").delay(0).timeUnit(TimeUnit.MILLISECONDS).build();
+        assertNull(codec.decode(codec.encode(event)).getUniverseId());
+    }
+
+    @Test
+    void smallerThanJsonTest() {
+        GameEvent event = GameEvent.builder().universeId("universe").
+                id("event").delay(100).timeUnit(TimeUnit.MILLISECONDS).build();
+        event.init();
+        assertTrue(codec.encode(event).length < new JsonEventCodec().encode(event).length);
+    }
+
+    @Test
+    void jsonFallbackTest() throws IOException {
+        GameEvent event = GameEvent.builder().universeId("universe").
+                id("event").delay(100).timeUnit(TimeUnit.MILLISECONDS).build();
+        event.init();
+        GameEvent result = codec.decode(new JsonEventCodec().encode(event));
+        assertEquals(event.getId(), result.getId());
+        assertEquals(event.getStartTime(), result.getStartTime());
+    }
+
+    @Test
+    void registerTest() throws IOException {
+        GameEvent event = InitStatisticsEvent.builder().id("event").build();
+        assertNotEquals(codec.encode(event)[0], codec.encode(GameEvent.builder().id("event").build())[0]);
+
+        codec.register(2, InitStatisticsEvent.class, InitStatisticsEvent::builder);
+        assertEquals(InitStatisticsEvent.class, codec.decode(codec.encode(event)).getClass());
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.register(2, InitStatisticsEvent.class, InitStatisticsEvent::builder));
+    }
+
+    @Test
+    void malformedRecordTest() {
+        byte[] data = codec.encode(GameEvent.builder().id("event").universeId("universe").build());
+        assertThrows(IOException.class, () -> codec.decode(Arrays.copyOf(data, data.length - 2)));
+
+        data[1] = 100;
+        assertThrows(IOException.class, () -> codec.decode(data));
+    }
+}
@@ -0,0 +1,189 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.JournalConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileEventJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recoverPendingEventsTest() throws IOException {
+        FileEventJournal journal = createJournal(1024 * 1024, 4);
+        journal.start();
+        List<GameEvent> events = createEvents(10);
+        events.forEach(journal::append);
+        for (int i = 0; i < 10; i += 2) {
+            journal.complete(events.get(i));
+        }
+        journal.stop(false);
+
+        List<GameEvent> result = recover();
+        assertEquals(List.of("1", "3", "5", "7", "9"), result.stream().map(GameEvent::getId).toList());
+        assertEquals(GameEvent.class, result.get(0).getClass());
+    }
+
+    @Test
+    void recoverTwiceTest() throws IOException {
+        FileEventJournal journal = createJournal(1024 * 1024, 4);
+        journal.start();
+        createEvents(3).forEach(journal::append);
+        journal.stop(false);
+
+        FileEventJournal restarted = createJournal(1024 * 1024, 4);
+        restarted.start();
+        List<GameEvent> result = new ArrayList<>();
+        restarted.recover(event -> {
+            result.add(event);
+            restarted.append(event);
+        });
+        restarted.stop(false);
+        assertEquals(3, result.size());
+
+        assertEquals(3, recover().size());
+    }
+
+    @Test
+    void appendSnapshotTest() throws IOException {
+        FileEventJournal journal = createJournal(1024 * 1024, 4);
+        journal.start();
+        GameEvent event = createEvents(1).get(0);
+        journal.append(event);
+        // the game thread owns the event right after the append
+        event.changeDelay(1, TimeUnit.HOURS);
+        journal.stop(false);
+
+        List<GameEvent> result = recover();
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getDelay(TimeUnit.MINUTES) < 1);
+    }
+
+    @Test
+    void truncateTest() throws IOException {
+        FileEventJournal journal = createJournal(1024 * 1024, 4);
+        journal.start();
+        createEvents(10).forEach(journal::append);
+        journal.stop(true);
+
+        assertEquals(0, countSegments());
+        assertTrue(recover().isEmpty());
+    }
+
+    @Test
+    void compactionTest() throws IOException {
+        FileEventJournal journal = createJournal(256, 2);
+        journal.start();
+        List<GameEvent> events = createEvents(200);
+        GameEvent pending = events.get(0);
+        journal.append(pending);
+        for (GameEvent event : events.subList(1, events.size())) {
+            journal.append(event);
+            journal.complete(event);
+        }
+        journal.stop(false);
+        assertTrue(countSegments() <= 3);
+
+        List<GameEvent> result = recover();
+        assertEquals(1, result.size());
+        assertEquals(pending.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void checkpointInBatchesTest() throws IOException {
+        FileEventJournal journal = createJournal(256, 2);
+        journal.start();
+        List<GameEvent> events = createEvents(250);
+        List<GameEvent> pending = events.subList(0, 50);
+        pending.forEach(journal::append);
+        for (GameEvent event : events.subList(50, events.size())) {
+            journal.append(event);
+            journal.complete(event);
+        }
+        assertTrue(journal.isDurable());
+        journal.stop(false);
+        assertFalse(journal.isDurable());
+
+        assertEquals(pending.stream().map(GameEvent::getId).toList(),
+                recover().stream().map(GameEvent::getId).sorted(Comparator.comparingInt(Integer::parseInt)).toList());
+    }
+
+    @Test
+    void tornSegmentCheckpointTest() throws IOException {
+        FileEventJournal journal = new FileEventJournal(
+                new JournalConfig(true, directory.toString(), 16, 1, 256, 2, 500, 1024, false));
+        journal.start();
+        List<GameEvent> events = createEvents(300);
+        List<GameEvent> pending = events.subList(0, 100);
+        pending.forEach(journal::append);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> countSegments() > 3);
+
+        // a torn tail strands the pending events of the last record before the checkpoint relocates the segment
+        Path oldest = listSegments().get(0);
+        byte[] content = Files.readAllBytes(oldest);
+        Files.write(oldest, Arrays.copyOf(content, content.length - 1));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !Files.exists(oldest));
+
+        pending.forEach(journal::complete);
+        for (GameEvent event : events.subList(100, events.size())) {
+            journal.append(event);
+            journal.complete(event);
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> countSegments() <= 3);
+        assertTrue(journal.isDurable());
+        journal.stop(false);
+
+        assertTrue(recover().isEmpty());
+    }
+
+    private List<GameEvent> recover() throws IOException {
+        FileEventJournal journal = createJournal(1024 * 1024, 4);
+        journal.start();
+        List<GameEvent> result = new ArrayList<>();
+        journal.recover(result::add);
+        journal.stop(true);
+        return result;
+    }
+
+    private FileEventJournal createJournal(long segmentSize, int maxSegments) {
+        return new FileEventJournal(new JournalConfig(true, directory.toString(), 16, 1, segmentSize, maxSegments, 0, 4, false));
+    }
+
+    private List<GameEvent> createEvents(int count) {
+        List<GameEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GameEvent event = GameEvent.builder().universeId("1").
+                    id(String.valueOf(i)).delay(i).timeUnit(TimeUnit.SECONDS).build();
+            event.init();
+            events.add(event);
+        }
+        return events;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
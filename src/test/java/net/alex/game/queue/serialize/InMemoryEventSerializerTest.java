@@ -2,6 +2,7 @@ package net.alex.game.queue.serialize;
 
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.SerializerConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,6 +21,9 @@ class InMemoryEventSerializerTest {
     @Autowired
     private InMemoryEventSerializer inMemoryEventSerializer;
 
+    @Autowired
+    private SerializerConfig serializerConfig;
+
     @Test
     void readWriteTest() throws IOException {
         List<GameEvent> events = new ArrayList<>();
@@ -49,4 +53,30 @@ class InMemoryEventSerializerTest {
         assertTrue(result.get(0).getStartTime() - startTime0 <= 5000);
         assertTrue(result.get(1).getStartTime() - startTime1 <= 8000);
     }
-}
\ No newline at end of file
+
+    @Test
+    void readWriteChunksTest() throws IOException {
+        int eventCount = serializerConfig.chunkSize() * 3 + 1;
+        List<GameEvent> events = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            GameEvent event = GameEvent.builder().universeId("1").
+                    id(String.valueOf(i)).delay(i).timeUnit(TimeUnit.SECONDS).build();
+            event.init();
+            events.add(event);
+        }
+        inMemoryEventSerializer.writeEvents(events.iterator());
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        inMemoryEventSerializer.readFromDataStore(serializerConfig.chunkSize()).
+                forEachRemaining(chunk -> chunkSizes.add(chunk.size()));
+        assertEquals(List.of(serializerConfig.chunkSize(), serializerConfig.chunkSize(),
+                serializerConfig.chunkSize(), 1), chunkSizes);
+
+        List<GameEvent> result = new ArrayList<>();
+        inMemoryEventSerializer.readEvents(result::add);
+        assertEquals(eventCount, result.size());
+        for (int i = 0; i < eventCount; i++) {
+            assertEquals(String.valueOf(i), result.get(i).getId());
+        }
+    }
+}
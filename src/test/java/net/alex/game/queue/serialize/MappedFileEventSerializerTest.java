@@ -0,0 +1,130 @@
+package net.alex.game.queue.serialize;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.config.SerializerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileEventSerializerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readWriteTest() throws IOException {
+        MappedFileEventSerializer serializer = createSerializer(10, 1024);
+        List<GameEvent> events = createEvents(95);
+        serializer.writeEvents(events.iterator());
+        assertTrue(countSegments() > 1);
+
+        List<GameEvent> result = new ArrayList<>();
+        serializer.readEvents(result::add);
+
+        assertEquals(events.size(), result.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(events.get(i).getId(), result.get(i).getId());
+            assertEquals(GameEvent.class, result.get(i).getClass());
+        }
+        assertEquals(0, countSegments());
+
+        result.clear();
+        serializer.readEvents(result::add);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void rewriteTest() throws IOException {
+        MappedFileEventSerializer serializer = createSerializer(10, 1024);
+        serializer.writeEvents(createEvents(50).iterator());
+        serializer.writeEvents(createEvents(5).iterator());
+
+        List<GameEvent> result = new ArrayList<>();
+        serializer.readEvents(result::add);
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    void failedRestoreKeepsSegmentsTest() throws IOException {
+        MappedFileEventSerializer serializer = createSerializer(10, 1024);
+        serializer.writeEvents(createEvents(30).iterator());
+        long segments = countSegments();
+
+        List<GameEvent> restored = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> serializer.readEvents(event -> {
+            if (restored.size() == 15) {
+                throw new IllegalStateException("Restore failed");
+            }
+            restored.add(event);
+        }));
+        assertEquals(segments, countSegments());
+
+        serializer.writeEvents(createEvents(5).iterator());
+        assertTrue(countSegments() > segments);
+        List<GameEvent> result = new ArrayList<>();
+        serializer.readEvents(result::add);
+        assertEquals(35, result.size());
+        assertEquals(0, countSegments());
+    }
+
+    @Test
+    void corruptedRecordTest() throws IOException {
+        MappedFileEventSerializer serializer = createSerializer(10, 64 * 1024);
+        serializer.writeEvents(createEvents(20).iterator());
+        assertEquals(1, countSegments());
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(10);
+            int value = file.read();
+            file.seek(10);
+            file.write(value ^ 0xFF);
+        }
+
+        List<GameEvent> result = new ArrayList<>();
+        serializer.readEvents(result::add);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void oversizedRecordTest() {
+        MappedFileEventSerializer serializer = createSerializer(10, 16);
+        List<GameEvent> events = createEvents(1);
+        assertThrows(IOException.class, () -> serializer.writeEvents(events.iterator()));
+    }
+
+    private MappedFileEventSerializer createSerializer(int chunkSize, int segmentSize) {
+        return new MappedFileEventSerializer(new SerializerConfig("MappedFileEventSerializer",
+                chunkSize, CodecType.BINARY, directory.toString(), segmentSize));
+    }
+
+    private List<GameEvent> createEvents(int count) {
+        List<GameEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GameEvent event = GameEvent.builder().universeId("1").
+                    id(String.valueOf(i)).delay(i).timeUnit(TimeUnit.SECONDS).build();
+            event.init();
+            events.add(event);
+        }
+        return events;
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
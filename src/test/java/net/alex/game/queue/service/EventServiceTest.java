@@ -0,0 +1,189 @@
+package net.alex.game.queue.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.FastModeSwitchEvent;
+import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.event.UniverseClockEvent;
+import net.alex.game.queue.event.UniverseDropEvent;
+import net.alex.game.queue.event.UniverseSuspensionEvent;
+import net.alex.game.queue.exception.InvalidUniverseSpeedException;
+import net.alex.game.queue.executor.GameThreadPoolExecutor;
+import net.alex.game.queue.model.out.EventResultOut;
+import net.alex.game.queue.thread.GameEventThread;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static net.alex.game.model.event.GameEventJSON.toJSON;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class EventServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GameThreadPoolExecutor threadPoolExecutor;
+    private Validator validator;
+    private EventService eventService;
+
+    @BeforeEach
+    void beforeEach() {
+        threadPoolExecutor = mock(GameThreadPoolExecutor.class);
+        validator = mock(Validator.class);
+        doReturn(Set.of()).when(validator).validate(any());
+        eventService = new EventService(threadPoolExecutor, validator);
+    }
+
+    @Test
+    void testAddEventsGroupedByThread() throws IOException {
+        GameEventThread first = mock(GameEventThread.class);
+        GameEventThread second = mock(GameEventThread.class);
+        doReturn(first).when(threadPoolExecutor).getUniverseThread("1");
+        doReturn(second).when(threadPoolExecutor).getUniverseThread("2");
+        doReturn(null).when(threadPoolExecutor).getUniverseThread("3");
+
+        List<EventResultOut> result = eventService.addEvents(List.of(
+                node(event("1a", "1")),
+                node(event("2a", "2")),
+                node(event("1b", "1")),
+                node(event("3a", "3"))));
+
+        assertEquals(List.of(true, true, true, false), result.stream().map(EventResultOut::isAccepted).toList());
+        assertEquals(List.of("1a", "2a", "1b", "3a"), result.stream().map(EventResultOut::getId).toList());
+        assertEquals(List.of("1a", "1b"), addedIds(first));
+        assertEquals(List.of("2a"), addedIds(second));
+    }
+
+    @Test
+    void testAddEventsDeclinesInvalidElements() throws IOException {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+        Path path = mock(Path.class);
+        doReturn("id").when(path).toString();
+        ConstraintViolation<?> violation = mock(ConstraintViolation.class);
+        doReturn(path).when(violation).getPropertyPath();
+        doReturn("must not be blank").when(violation).getMessage();
+        doReturn(Set.of(violation)).when(validator).validate(argThat(e -> "invalid".equals(((GameEvent) e).getId())));
+
+        List<EventResultOut> result = eventService.addEvents(List.of(
+                node(event("1a", "1")),
+                objectMapper.readTree("42"),
+                node(event("invalid", "1"))));
+
+        assertEquals(List.of(true, false, false), result.stream().map(EventResultOut::isAccepted).toList());
+        assertEquals(List.of(0, 1, 2), result.stream().map(EventResultOut::getIndex).toList());
+        assertEquals("Invalid event: id must not be blank", result.get(2).getReason());
+        assertEquals(List.of("1a"), addedIds(thread));
+    }
+
+    @Test
+    void testAddEventsDeclinesSystemEvents() throws IOException {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+        List<GameEvent> systemEvents = List.of(
+                QueueTerminationEvent.builder().id("terminate").universeId("1").build(),
+                UniverseDropEvent.builder().id("drop").universeId("1").build(),
+                UniverseSuspensionEvent.builder().id("suspend").universeId("1").suspend(true).build(),
+                FastModeSwitchEvent.builder().id("fast").universeId("1").enable(true).build());
+        List<JsonNode> nodes = new ArrayList<>();
+        nodes.add(node(event("1a", "1")));
+        for (GameEvent systemEvent : systemEvents) {
+            nodes.add(node(systemEvent));
+        }
+
+        List<EventResultOut> result = eventService.addEvents(nodes);
+        assertEquals(List.of(true, false, false, false, false),
+                result.stream().map(EventResultOut::isAccepted).toList());
+        assertTrue(result.stream().skip(1).allMatch(r -> "Invalid event".equals(r.getReason())));
+        assertEquals(List.of("1a"), addedIds(thread));
+
+        String ndjson = toJSON(UniverseDropEvent.builder().id("drop").universeId("1").build()) + "\n";
+        result = eventService.addEvents(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        assertFalse(result.get(0).isAccepted());
+        verify(thread, never()).addEvent(any());
+        verify(thread).addEvents(any());
+    }
+
+    @Test
+    void testAddEventsStream() throws IOException {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+        String ndjson = toJSON(event("1a", "1")) + "\n" +
+                "\n" +
+                "not a json\n" +
+                toJSON(event("1b", "1"));
+
+        List<EventResultOut> result = eventService.addEvents(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.size());
+        assertEquals(List.of(0, 1, 2), result.stream().map(EventResultOut::getIndex).toList());
+        assertEquals(List.of(true, false, true), result.stream().map(EventResultOut::isAccepted).toList());
+        assertEquals("Invalid event", result.get(1).getReason());
+        assertEquals(List.of("1a", "1b"), addedIds(thread));
+    }
+
+    @Test
+    void testDropUniverseDeletesBackup() {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+
+        eventService.dropUniverse("1");
+        verify(thread).addEvent(any(UniverseDropEvent.class));
+        verify(threadPoolExecutor).deleteBackup("1");
+    }
+
+    @Test
+    void testChangeUniverseSpeed() {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+
+        eventService.changeUniverseSpeed("1", 0);
+        eventService.changeUniverseSpeed("1", 2.5);
+        ArgumentCaptor<GameEvent> captor = ArgumentCaptor.forClass(GameEvent.class);
+        verify(thread, times(2)).addEvent(captor.capture());
+        assertEquals(List.of(0.0, 2.5), captor.getAllValues().stream().
+                map(event -> ((UniverseClockEvent) event).getSpeed()).toList());
+    }
+
+    @Test
+    void testChangeUniverseSpeedInvalid() {
+        GameEventThread thread = mock(GameEventThread.class);
+        doReturn(thread).when(threadPoolExecutor).getUniverseThread("1");
+
+        for (double speed : new double[]{-1, Double.NaN, Double.POSITIVE_INFINITY}) {
+            assertThrows(InvalidUniverseSpeedException.class, () -> eventService.changeUniverseSpeed("1", speed));
+        }
+        verify(thread, never()).addEvent(any());
+    }
+
+    private JsonNode node(GameEvent event) throws IOException {
+        return objectMapper.readTree(toJSON(event));
+    }
+
+    private GameEvent event(String id, String universeId) {
+        return GameEvent.builder().id(id).universeId(universeId).delay(1).timeUnit(TimeUnit.HOURS).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> addedIds(GameEventThread thread) {
+        ArgumentCaptor<Collection<GameEvent>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(thread).addEvents(captor.capture());
+        return captor.getValue().stream().map(GameEvent::getId).toList();
+    }
+}
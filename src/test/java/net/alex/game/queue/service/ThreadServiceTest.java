@@ -1,18 +1,35 @@
 package net.alex.game.queue.service;
 
+import net.alex.game.model.event.GameEvent;
 import net.alex.game.queue.config.ExecutorConfig;
+import net.alex.game.queue.config.SerializerConfig;
+import net.alex.game.queue.model.RestoreState;
+import net.alex.game.queue.model.out.RestoreStatusOut;
+import net.alex.game.queue.serialize.CodecType;
+import net.alex.game.queue.serialize.InMemoryEventSerializer;
 import net.alex.game.queue.thread.GameThreadStats;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 
+// the queue is restored once per context, so a fresh one reads the seeded store
 @SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 class ThreadServiceTest {
+    private static final int SEEDED_EVENTS = 5;
 
     @Autowired
     private ThreadService threadService;
@@ -20,6 +37,20 @@ class ThreadServiceTest {
     @Autowired
     private ExecutorConfig executorConfig;
 
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @BeforeAll
+    static void seedDataStore() throws IOException {
+        List<GameEvent> events = IntStream.range(0, SEEDED_EVENTS).
+                mapToObj(i -> GameEvent.builder().universeId(String.valueOf(i)).id(String.valueOf(i)).
+                        delay(1).timeUnit(TimeUnit.HOURS).build()).
+                toList();
+        events.forEach(GameEvent::init);
+        new InMemoryEventSerializer(new SerializerConfig("InMemoryEventSerializer", 2, CodecType.BINARY, null, 0)).
+                writeEvents(events.iterator());
+    }
+
     @Test
     void testGetThreadStatisticsList() {
         List<GameThreadStats> result = threadService.getThreadStatisticsList();
@@ -40,4 +71,14 @@ class ThreadServiceTest {
         assertEquals(threadId, result.getThreadId());
     }
 
+    @Test
+    void testGetRestoreStatus() {
+        await().atMost(5, TimeUnit.SECONDS).until(() -> threadService.getRestoreStatus().getState() == RestoreState.READY);
+        RestoreStatusOut result = threadService.getRestoreStatus();
+        assertEquals(SEEDED_EVENTS, result.getRestoredEvents());
+        assertTrue(result.getElapsedTime() >= 0);
+        await().atMost(5, TimeUnit.SECONDS).
+                until(() -> applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
 }
\ No newline at end of file
@@ -2,18 +2,34 @@ package net.alex.game.queue.thread;
 
 import lombok.extern.slf4j.Slf4j;
 import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.EventCancellationEvent;
+import net.alex.game.queue.event.EventRescheduleEvent;
 import net.alex.game.queue.event.FastModeSwitchEvent;
 import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.event.ThreadRetirementEvent;
+import net.alex.game.queue.event.UniverseDropEvent;
+import net.alex.game.queue.event.UniverseMigrationEvent;
+import net.alex.game.queue.event.UniverseSuspensionEvent;
 import net.alex.game.queue.executor.EventExecutor;
+import net.alex.game.queue.scheduler.EventScheduler;
+import net.alex.game.queue.scheduler.TimingWheelEventScheduler;
+import net.alex.game.queue.serialize.CodecType;
+import net.alex.game.queue.serialize.EventRecord;
 import net.alex.game.queue.serialize.EventSerializer;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Slf4j
@@ -101,10 +117,498 @@ class GameEventThreadTest {
         assertTrue(eventRunner.getDuration() < maxDuration);
     }
 
+    @Test
+    void testTimingWheelInStandardMode() throws InterruptedException {
+        long maxDuration = eventIdToDuration.keySet().stream().max(Long::compareTo).orElseThrow();
+        long waitTime = maxDuration + 500;
+
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        runEventThread(eventRunner,
+                new TimingWheelEventScheduler(1),
+                eventIdToDuration.entrySet().stream().
+                        map(e -> GameEvent.builder().universeId("1").id(e.getValue()).delay(e.getKey()).timeUnit(TimeUnit.MILLISECONDS).build()).
+                        collect(Collectors.toList()),
+                waitTime);
+
+        checkEventsSequence(eventRunner, eventIdToDuration);
+        assertTrue(eventRunner.getDuration() >= maxDuration);
+        assertTrue(eventRunner.getDuration() <= waitTime);
+    }
+
+    @Test
+    void testTimingWheelInMixedMode() throws InterruptedException {
+        long maxDuration = eventIdToDuration.keySet().stream().max(Long::compareTo).orElseThrow();
+        long waitTime = maxDuration + 500;
+
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        List<GameEvent> events = new ArrayList<>();
+        events.add(FastModeSwitchEvent.builder().universeId("1").id("f1").delay(150).timeUnit(TimeUnit.MILLISECONDS).enable(true).build());
+        events.add(FastModeSwitchEvent.builder().universeId("1").id("f0").delay(350).timeUnit(TimeUnit.MILLISECONDS).enable(false).build());
+        events.addAll(eventIdToDuration.entrySet().stream().
+                map(e -> GameEvent.builder().universeId("1").id(e.getValue()).delay(e.getKey()).timeUnit(TimeUnit.MILLISECONDS).build()).toList());
+        runEventThread(eventRunner, new TimingWheelEventScheduler(1), events, waitTime);
+
+        checkEventsSequence(eventRunner, eventIdToDuration);
+        assertTrue(eventRunner.getDuration() < maxDuration);
+    }
+
+    @Test
+    void testOffloadedBlockingHandler() {
+        List<String> executed = new CopyOnWriteArrayList<>();
+        EventExecutor eventExecutor = event -> {
+            if ("slow".equals(event.getId())) {
+                sleep(300);
+            }
+            executed.add(event.getId());
+            return true;
+        };
+        ExecutorService handlerExecutor = Executors.newCachedThreadPool();
+        GameEventThread thread = offloadedThread(eventExecutor, new OffloadedExecution(handlerExecutor, 16, 1));
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("slow").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("next").delay(10).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("fast").delay(50).timeUnit(TimeUnit.MILLISECONDS).build());
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> executed.size() == 3);
+        assertEquals(List.of("fast", "slow", "next"), executed);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getInFlight() == 0);
+        stopThread(thread);
+        handlerExecutor.shutdown();
+    }
+
+    @Test
+    void testOffloadedInFlightLimit() {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        EventExecutor eventExecutor = event -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executed.add(event.getId());
+            return true;
+        };
+        ExecutorService handlerExecutor = Executors.newCachedThreadPool();
+        GameEventThread thread = offloadedThread(eventExecutor, new OffloadedExecution(handlerExecutor, 2, 1));
+        new Thread(thread).start();
+        for (int i = 0; i < 4; i++) {
+            thread.addEvent(GameEvent.builder().universeId(String.valueOf(i)).id(String.valueOf(i)).
+                    delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        }
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getInFlight() == 2);
+        sleep(50);
+        assertEquals(2, thread.getStatistics().getInFlight());
+        latch.countDown();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> executed.size() == 4);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getInFlight() == 0);
+        assertEquals(4, thread.getStatistics().getOperationsDone());
+        stopThread(thread);
+        handlerExecutor.shutdown();
+    }
+
+    @Test
+    void testRetirementHandsOverPendingEvents() {
+        List<GameEvent> handedOver = new CopyOnWriteArrayList<>();
+        CountDownLatch detached = new CountDownLatch(1);
+        GameEventThread thread = thread(new TestEventExecutor());
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("2").delay(2).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(ThreadRetirementEvent.builder().
+                id(UUID.randomUUID().toString()).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                handOver(handedOver::addAll).
+                detach(detached::countDown).
+                build());
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> handedOver.size() == 2);
+        assertEquals(0, detached.getCount());
+        assertEquals(Set.of("1", "2"), handedOver.stream().map(GameEvent::getId).collect(Collectors.toSet()));
+        assertTrue(handedOver.stream().allMatch(e -> e.getDelay(TimeUnit.MINUTES) > 50));
+
+        thread.addEvent(GameEvent.builder().universeId("3").id("3").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        assertEquals("3", handedOver.get(2).getId());
+        assertFalse(thread.getQueueIterator().hasNext());
+    }
+
+    @Test
+    void testMigrationForwardsLateEvents() {
+        TestEventExecutor sourceRunner = new TestEventExecutor();
+        TestEventExecutor targetRunner = new TestEventExecutor();
+        GameEventThread source = thread(sourceRunner);
+        GameEventThread target = thread(targetRunner);
+        new Thread(source).start();
+        new Thread(target).start();
+        CountDownLatch rerouted = new CountDownLatch(1);
+        source.addEvent(GameEvent.builder().universeId("1").id("1").delay(100).timeUnit(TimeUnit.MILLISECONDS).build());
+        source.addEvent(migrationEvent("1", target, rerouted::countDown));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> rerouted.getCount() == 0);
+
+        // a producer that routed before the switch still reaches the source
+        source.addEvent(GameEvent.builder().universeId("1").id("2").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> targetRunner.getEventSequence().size() == 2);
+        assertEquals(List.of("2", "1"), targetRunner.getEventSequence());
+        assertTrue(sourceRunner.getEventSequence().isEmpty());
+        assertFalse(source.getQueueIterator().hasNext());
+        stopThread(source);
+        stopThread(target);
+    }
+
+    @Test
+    void testMigrationWaitsForInFlightEvents() {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        EventExecutor sourceExecutor = event -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executed.add("source:" + event.getId());
+            return true;
+        };
+        EventExecutor targetExecutor = event -> {
+            executed.add("target:" + event.getId());
+            return true;
+        };
+        ExecutorService handlerExecutor = Executors.newCachedThreadPool();
+        GameEventThread source = offloadedThread(sourceExecutor, new OffloadedExecution(handlerExecutor, 16, 1));
+        GameEventThread target = thread(targetExecutor);
+        new Thread(source).start();
+        new Thread(target).start();
+        CountDownLatch rerouted = new CountDownLatch(1);
+        source.addEvent(GameEvent.builder().universeId("1").id("slow").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        source.addEvent(GameEvent.builder().universeId("1").id("next").delay(10).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> source.getStatistics().getInFlight() == 1);
+        source.addEvent(migrationEvent("1", target, rerouted::countDown));
+
+        sleep(100);
+        assertEquals(1, rerouted.getCount());
+        assertTrue(executed.isEmpty());
+        latch.countDown();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> executed.size() == 2);
+        assertEquals(List.of("source:slow", "target:next"), executed);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> rerouted.getCount() == 0);
+        stopThread(source);
+        stopThread(target);
+        handlerExecutor.shutdown();
+    }
+
+    @Test
+    void testBatchByUniverse() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        EventExecutor eventExecutor = new EventExecutor() {
+            @Override
+            public boolean executeEvent(GameEvent gameEvent) {
+                return true;
+            }
+
+            @Override
+            public int executeEvents(List<GameEvent> gameEvents) {
+                if ("slow".equals(gameEvents.get(0).getId())) {
+                    sleep(100);
+                }
+                batches.add(gameEvents.stream().map(GameEvent::getId).toList());
+                return gameEvents.size();
+            }
+        };
+        GameEventThread thread = GameEventThread.builder().
+                eventExecutor(eventExecutor).
+                loadFactorPrecision(10).
+                eventScheduler(new TimingWheelEventScheduler(1)).
+                bufferSize(16).
+                batchSize(16).
+                build();
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("0").id("slow").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> !thread.getQueueIterator().hasNext());
+        thread.addEvents(List.of(
+                GameEvent.builder().universeId("1").id("1a").delay(0).timeUnit(TimeUnit.MILLISECONDS).build(),
+                GameEvent.builder().universeId("2").id("2a").delay(1).timeUnit(TimeUnit.MILLISECONDS).build(),
+                GameEvent.builder().universeId("1").id("1b").delay(2).timeUnit(TimeUnit.MILLISECONDS).build(),
+                GameEvent.builder().universeId("2").id("2b").delay(3).timeUnit(TimeUnit.MILLISECONDS).build()));
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> batches.size() == 3);
+        assertEquals(List.of(List.of("slow"), List.of("1a", "1b"), List.of("2a", "2b")), batches);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getOperationsDone() == 5);
+        stopThread(thread);
+    }
+
+    @Test
+    void testCancelAndRescheduleEvent() {
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        GameEventThread thread = thread(eventRunner);
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("2").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("3").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(EventCancellationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("1").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId("1").
+                build());
+        thread.addEvent(EventRescheduleEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("1").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId("2").
+                targetDelay(0).
+                targetTimeUnit(TimeUnit.MILLISECONDS).
+                build());
+        // events of another universe are out of reach
+        thread.addEvent(EventCancellationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("2").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId("3").
+                build());
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> eventRunner.getEventSequence().size() == 1);
+        assertEquals(List.of("2"), eventRunner.getEventSequence());
+        List<String> pending = new ArrayList<>();
+        thread.getQueueIterator().forEachRemaining(e -> pending.add(e.getId()));
+        assertEquals(List.of("3"), pending);
+        stopThread(thread);
+    }
+
+    @Test
+    void testCancelAndRescheduleBlockedEvent() {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        EventExecutor eventExecutor = event -> {
+            if ("slow".equals(event.getId())) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            executed.add(event.getId());
+            return true;
+        };
+        ExecutorService handlerExecutor = Executors.newCachedThreadPool();
+        GameEventThread thread = offloadedThread(eventExecutor, new OffloadedExecution(handlerExecutor, 16, 1));
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("slow").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getInFlight() == 1);
+        thread.addEvent(GameEvent.builder().universeId("1").id("1").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("2").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> {
+            List<String> pending = new ArrayList<>();
+            thread.getQueueIterator().forEachRemaining(e -> pending.add(e.getId()));
+            return pending.equals(List.of("1", "2"));
+        });
+        thread.addEvent(EventCancellationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("1").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId("1").
+                build());
+        thread.addEvent(EventRescheduleEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("1").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetId("2").
+                targetDelay(1).
+                targetTimeUnit(TimeUnit.HOURS).
+                build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> {
+            List<GameEvent> pending = new ArrayList<>();
+            thread.getQueueIterator().forEachRemaining(pending::add);
+            return pending.size() == 1 && pending.get(0).getDelay(TimeUnit.MINUTES) > 50;
+        });
+
+        latch.countDown();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> thread.getStatistics().getInFlight() == 0);
+        thread.addEvent(GameEvent.builder().universeId("1").id("3").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> executed.size() == 2);
+        assertEquals(List.of("slow", "3"), executed);
+        stopThread(thread);
+        handlerExecutor.shutdown();
+    }
+
+    @Test
+    void testSuspendAndDropUniverse() {
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        GameEventThread thread = thread(eventRunner);
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1a").delay(50).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("1b").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("2a").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(suspensionEvent("1", true));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(thread).size() == 3);
+        thread.addEvent(GameEvent.builder().universeId("1").id("1c").delay(0).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(UniverseDropEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("2").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                build());
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(thread).equals(Set.of("1a", "1b", "1c")));
+        sleep(100);
+        assertTrue(eventRunner.getEventSequence().isEmpty());
+
+        thread.addEvent(suspensionEvent("1", false));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> eventRunner.getEventSequence().size() == 2);
+        assertEquals(Set.of("1a", "1c"), new HashSet<>(eventRunner.getEventSequence()));
+        assertEquals(Set.of("1b"), pendingIds(thread));
+        stopThread(thread);
+    }
+
+    @Test
+    void testSuspendAndDropEventsWithoutUniqueIds() {
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        GameEventThread thread = thread(eventRunner);
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1a").delay(100).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("1a").delay(150).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").delay(200).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("2a").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("2a").delay(2).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").delay(3).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(suspensionEvent("1", true));
+        thread.addEvent(UniverseDropEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId("2").
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                build());
+        await().atMost(1, TimeUnit.SECONDS).until(() -> {
+            List<GameEvent> pending = new ArrayList<>();
+            thread.getQueueIterator().forEachRemaining(pending::add);
+            return pending.size() == 1 && pending.get(0) instanceof UniverseSuspensionEvent suspension &&
+                    suspension.getParkedEvents().size() == 3;
+        });
+        sleep(300);
+        assertTrue(eventRunner.getEventSequence().isEmpty());
+
+        thread.addEvent(suspensionEvent("1", false));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> eventRunner.getEventSequence().size() == 3);
+        assertEquals(2, eventRunner.getEventSequence().stream().filter("1a"::equals).count());
+        assertFalse(thread.getQueueIterator().hasNext());
+        stopThread(thread);
+    }
+
+    @Test
+    void testSuspendedUniverseRestoredSuspended() {
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        GameEventThread thread = thread(eventRunner);
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1a").delay(50).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("1b").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(suspensionEvent("1", true));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(thread).equals(Set.of("1a", "1b")));
+        List<GameEvent> backup = new ArrayList<>();
+        thread.getQueueIterator().forEachRemaining(backup::add);
+        stopThread(thread);
+
+        TestEventExecutor restoredRunner = new TestEventExecutor();
+        GameEventThread restored = thread(restoredRunner);
+        new Thread(restored).start();
+        restored.addEvents(backup);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(restored).equals(Set.of("1a", "1b")));
+        sleep(100);
+        assertTrue(restoredRunner.getEventSequence().isEmpty());
+
+        restored.addEvent(suspensionEvent("1", false));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> restoredRunner.getEventSequence().size() == 1);
+        assertEquals(List.of("1a"), restoredRunner.getEventSequence());
+        assertEquals(Set.of("1b"), pendingIds(restored));
+        stopThread(restored);
+    }
+
+    @Test
+    void testSuspendedUniverseBackedUpSuspended() throws IOException {
+        TestEventExecutor eventRunner = new TestEventExecutor();
+        GameEventThread thread = thread(eventRunner);
+        new Thread(thread).start();
+        thread.addEvent(GameEvent.builder().universeId("1").id("1a").delay(50).timeUnit(TimeUnit.MILLISECONDS).build());
+        thread.addEvent(GameEvent.builder().universeId("1").id("1b").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(GameEvent.builder().universeId("2").id("2a").delay(1).timeUnit(TimeUnit.HOURS).build());
+        thread.addEvent(suspensionEvent("1", true));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(thread).equals(Set.of("1a", "1b", "2a")));
+        stopThread(thread);
+
+        StoredEventSerializer serializer = new StoredEventSerializer();
+        serializer.writeEvents(thread.getQueueIterator());
+        List<GameEvent> backup = new ArrayList<>();
+        serializer.readEvents(backup::add);
+        assertEquals(2, backup.size());
+
+        TestEventExecutor restoredRunner = new TestEventExecutor();
+        GameEventThread restored = thread(restoredRunner);
+        new Thread(restored).start();
+        restored.addEvents(backup);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> pendingIds(restored).equals(Set.of("1a", "1b", "2a")));
+        sleep(100);
+        assertTrue(restoredRunner.getEventSequence().isEmpty());
+
+        restored.addEvent(suspensionEvent("1", false));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> restoredRunner.getEventSequence().size() == 1);
+        assertEquals(List.of("1a"), restoredRunner.getEventSequence());
+        assertEquals(Set.of("1b", "2a"), pendingIds(restored));
+        stopThread(restored);
+    }
+
+    private GameEvent migrationEvent(String universeId, GameEventThread target, Runnable reroute) {
+        return UniverseMigrationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                targetThread(target).
+                reroute(reroute).
+                build();
+    }
+
+    private GameEvent suspensionEvent(String universeId, boolean suspend) {
+        return UniverseSuspensionEvent.builder().
+                id(UUID.randomUUID().toString()).
+                universeId(universeId).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                suspend(suspend).
+                build();
+    }
+
+    // suspended universes are listed as their suspension, their parked events are counted instead
+    private Set<String> pendingIds(GameEventThread thread) {
+        Set<String> ids = new HashSet<>();
+        thread.getQueueIterator().forEachRemaining(e -> {
+            if (e instanceof UniverseSuspensionEvent suspension && suspension.getParkedEvents() != null) {
+                suspension.getParkedEvents().forEach(parked -> ids.add(parked.getId()));
+            } else {
+                ids.add(e.getId());
+            }
+        });
+        return ids;
+    }
+
+    private void runEventThread(EventExecutor eventExecutor,
+                                List<GameEvent> events,
+                                long waitTime) throws InterruptedException {
+        runEventThread(eventExecutor, null, events, waitTime);
+    }
+
     private void runEventThread(EventExecutor eventExecutor,
+                                EventScheduler eventScheduler,
                                 List<GameEvent> events,
                                 long waitTime) throws InterruptedException {
-        GameEventThread thread = new GameEventThread(eventExecutor, 10);
+        GameEventThread thread = GameEventThread.builder().
+                eventExecutor(eventExecutor).
+                loadFactorPrecision(10).
+                eventScheduler(eventScheduler).
+                build();
         new Thread(thread).start();
         events.forEach(thread::addEvent);
         await().atMost(waitTime, TimeUnit.MILLISECONDS).until(() -> !thread.getQueueIterator().hasNext());
@@ -117,6 +621,40 @@ class GameEventThreadTest {
                 build());
     }
 
+    private GameEventThread thread(EventExecutor eventExecutor) {
+        return GameEventThread.builder().
+                eventExecutor(eventExecutor).
+                loadFactorPrecision(10).
+                build();
+    }
+
+    private GameEventThread offloadedThread(EventExecutor eventExecutor, OffloadedExecution offloadedExecution) {
+        return GameEventThread.builder().
+                eventExecutor(eventExecutor).
+                loadFactorPrecision(10).
+                eventScheduler(new TimingWheelEventScheduler(1)).
+                bufferSize(16).
+                offloadedExecution(offloadedExecution).
+                build();
+    }
+
+    private void stopThread(GameEventThread thread) {
+        thread.addEvent(QueueTerminationEvent.
+                builder().
+                id(UUID.randomUUID().toString()).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                build());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void checkEventsSequence(TestEventExecutor eventRunner, Map<Long, String> eventToDurationMap) {
         List<String> expectedEventSequence = eventToDurationMap.entrySet().stream().
                 sorted(Comparator.comparingLong(Map.Entry::getKey)).map(Map.Entry::getValue).toList();
@@ -155,10 +693,31 @@ class GameEventThreadTest {
         }
     }
 
+    // keeps the backup in memory, so a test can restore what a thread backed up
+    private static class StoredEventSerializer extends EventSerializer {
+        private final List<byte[]> records = new ArrayList<>();
+
+        StoredEventSerializer() {
+            super(16, CodecType.BINARY);
+        }
+        public Iterator<List<byte[]>> readFromDataStore(int chunkSize) {
+            return List.<List<byte[]>>of(new ArrayList<>(records)).iterator();
+        }
+        public void prepareDataStore() {
+            records.clear();
+        }
+        public void writeToDataStore(List<EventRecord> chunk) {
+            chunk.forEach(record -> records.add(record.data()));
+        }
+    }
+
     private static class DisabledEventSerializer extends EventSerializer {
-        public List<String> readFromDataStore() {
-            return Collections.emptyList();
+        DisabledEventSerializer() {
+            super(1, CodecType.BINARY);
+        }
+        public Iterator<List<byte[]>> readFromDataStore(int chunkSize) {
+            return Collections.emptyIterator();
         }
-        public void writeToDataStore(List<String> events) {}
+        public void writeToDataStore(List<EventRecord> chunk) {}
     }
 }
\ No newline at end of file
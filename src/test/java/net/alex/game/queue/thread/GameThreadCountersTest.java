@@ -2,18 +2,21 @@ package net.alex.game.queue.thread;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-class GameThreadStatsTest {
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameThreadCountersTest {
 
     @Test
-    void testUpdateStatsAndGet() {
-        GameThreadStats stats = new GameThreadStats();
+    void testRecordAndSnapshot() {
+        GameThreadCounters counters = new GameThreadCounters(10);
         long cycleEndTime = System.currentTimeMillis();
         long startTime = cycleEndTime - 100;
         long cycleStartTime = cycleEndTime - 30;
-        stats = GameThreadStats.updateStatsAndGet(stats, 1, startTime, cycleStartTime, cycleEndTime, true, 10);
+        counters.start(1, startTime);
+        counters.record(cycleStartTime, cycleEndTime, true);
+        GameThreadStats stats = counters.snapshot();
 
         assertNotNull(stats);
         assertEquals(GameThreadStats.builder()
@@ -32,12 +35,15 @@ class GameThreadStatsTest {
                 .averageWaitTime(70.0)
                 .loadFactor(30.0)
                 .momentaryLoadFactor(0.0)
+                .dispatchLagNanos(new LatencyStats())
+                .executionTimeNanos(new LatencyStats())
                 .build(), stats);
 
         for (int i = 0; i < 9; i++) {
             cycleStartTime = cycleEndTime + 70;
             cycleEndTime += 100;
-            stats = GameThreadStats.updateStatsAndGet(stats, 1, startTime, cycleStartTime, cycleEndTime, false, 10);
+            counters.record(cycleStartTime, cycleEndTime, false);
+            stats = counters.snapshot();
 
             if (i == 5) {
                 assertNotNull(stats);
@@ -57,6 +63,8 @@ class GameThreadStatsTest {
                         .averageWaitTime(70.0)
                         .loadFactor(30.0)
                         .momentaryLoadFactor(0.0)
+                        .dispatchLagNanos(new LatencyStats())
+                        .executionTimeNanos(new LatencyStats())
                         .build(), stats);
             }
         }
@@ -78,7 +86,53 @@ class GameThreadStatsTest {
                 .averageWaitTime(70.0)
                 .loadFactor(30.0)
                 .momentaryLoadFactor(30.0)
+                .dispatchLagNanos(new LatencyStats())
+                .executionTimeNanos(new LatencyStats())
                 .build(), stats);
+        assertEquals(30.0, counters.getMomentaryLoadFactor());
+    }
+
+    @Test
+    void testRecordBatch() {
+        GameThreadCounters counters = new GameThreadCounters(10);
+        counters.start(1, 0);
+        counters.record(0, 40, 6, 1);
+        GameThreadStats stats = counters.snapshot();
+        assertEquals(6, stats.getOperationsDone());
+        assertEquals(1, stats.getOperationsFailed());
+        assertEquals(7, stats.getCurrentXOperationsCount());
+        assertEquals(0.0, counters.getMomentaryLoadFactor());
+
+        counters.record(60, 100, 5, 0);
+        stats = counters.snapshot();
+        assertEquals(11, stats.getOperationsDone());
+        assertEquals(2, stats.getCurrentXOperationsCount());
+        assertEquals(80, stats.getTotalExecutionTime());
+        assertEquals(80.0, counters.getMomentaryLoadFactor());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSnapshotIsConsistent() throws InterruptedException {
+        GameThreadCounters counters = new GameThreadCounters(1000);
+        counters.start(1, 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            long time = 0;
+            while (running.get()) {
+                counters.record(time + 2, time + 5, true);
+                time += 5;
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                GameThreadStats stats = counters.snapshot();
+                assertEquals(stats.getOperationsDone() * 3, stats.getTotalExecutionTime());
+                assertEquals(stats.getOperationsDone() * 2, stats.getTotalWaitTime());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.alex.game.queue.thread;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketBounds() {
+        for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 999_999, 123_456_789L, Long.MAX_VALUE}) {
+            long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 32);
+        }
+        for (int i = 1; i < 64 * 32 - 32 * 5; i++) {
+            assertEquals(LatencyHistogram.highestValueOf(i - 1) + 1,
+                    LatencyHistogram.highestValueOf(i) - bucketWidth(i) + 1);
+        }
+    }
+
+    @Test
+    void testSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(new LatencyStats(), histogram.snapshot());
+
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        histogram.record(-5);
+
+        LatencyStats stats = histogram.snapshot();
+        assertEquals(10_001, stats.getCount());
+        assertEquals(10_000_000, stats.getMax());
+        assertEquals(5_000_000, stats.getP50(), 5_000_000 / 32.0);
+        assertEquals(9_900_000, stats.getP99(), 9_900_000 / 32.0);
+        assertEquals(9_990_000, stats.getP999(), 9_990_000 / 32.0);
+        assertTrue(stats.getP50() <= stats.getP99());
+        assertTrue(stats.getP99() <= stats.getP999());
+        assertTrue(stats.getP999() <= stats.getMax());
+    }
+
+    private long bucketWidth(int index) {
+        return index < 32 ? 1 : 1L << ((index >>> 5) - 1);
+    }
+}
@@ -0,0 +1,78 @@
+package net.alex.game.queue.thread;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void testOfferAndPoll() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(List.of(0, 1, 2, 3), buffer.snapshot());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+
+        List<Integer> result = new ArrayList<>();
+        Integer value;
+        while ((value = buffer.poll()) != null) {
+            result.add(value);
+        }
+        assertEquals(List.of(1, 2, 3, 4), result);
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testMultipleProducers() throws InterruptedException {
+        int producers = 4;
+        int count = 100_000;
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < count; i++) {
+                    while (!buffer.offer(producer * count + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] lastValues = new long[producers];
+        Arrays.fill(lastValues, -1);
+        int received = 0;
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (received < producers * count && System.currentTimeMillis() < deadline) {
+            Long value = buffer.poll();
+            if (value != null) {
+                int producer = (int) (value / count);
+                assertTrue(value % count > lastValues[producer]);
+                lastValues[producer] = value % count;
+                received++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * count, received);
+        assertTrue(buffer.isEmpty());
+    }
+}
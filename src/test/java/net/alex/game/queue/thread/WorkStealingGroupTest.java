@@ -0,0 +1,112 @@
+package net.alex.game.queue.thread;
+
+import net.alex.game.model.event.GameEvent;
+import net.alex.game.queue.event.QueueTerminationEvent;
+import net.alex.game.queue.executor.EventExecutor;
+import net.alex.game.queue.scheduler.TimingWheelEventScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkStealingGroupTest {
+    private static final long SLOW_EVENT_DURATION = 300;
+
+    private final List<GameEventThread> threads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        threads.forEach(thread -> thread.addEvent(QueueTerminationEvent.builder().
+                id(UUID.randomUUID().toString()).
+                delay(0).
+                timeUnit(TimeUnit.MILLISECONDS).
+                build()));
+    }
+
+    @Test
+    void stealDueEventTest() {
+        WorkStealingGroup group = new WorkStealingGroup(true);
+        RecordingExecutor busyExecutor = new RecordingExecutor();
+        RecordingExecutor idleExecutor = new RecordingExecutor();
+        GameEventThread busy = startThread(group, busyExecutor);
+        startThread(group, idleExecutor);
+
+        busy.addEvents(List.of(createEvent("slow", "1", 0), createEvent("other", "2", 5), createEvent("next", "1", 10)));
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> busyExecutor.events.size() + idleExecutor.events.size() == 3);
+        assertEquals(List.of("slow", "next"), busyExecutor.events);
+        assertEquals(List.of("other"), idleExecutor.events);
+    }
+
+    @Test
+    void orderedUniverseTest() {
+        WorkStealingGroup group = new WorkStealingGroup(true);
+        RecordingExecutor busyExecutor = new RecordingExecutor();
+        RecordingExecutor idleExecutor = new RecordingExecutor();
+        GameEventThread busy = startThread(group, busyExecutor);
+        startThread(group, idleExecutor);
+
+        busy.addEvents(List.of(createEvent("slow", "1", 0), createEvent("next", "1", 5)));
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> busyExecutor.events.size() + idleExecutor.events.size() == 2);
+        assertEquals(List.of("slow", "next"), busyExecutor.events);
+        assertEquals(List.of(), idleExecutor.events);
+    }
+
+    @Test
+    void unorderedUniverseTest() {
+        WorkStealingGroup group = new WorkStealingGroup(false);
+        RecordingExecutor busyExecutor = new RecordingExecutor();
+        RecordingExecutor idleExecutor = new RecordingExecutor();
+        GameEventThread busy = startThread(group, busyExecutor);
+        startThread(group, idleExecutor);
+
+        busy.addEvents(List.of(createEvent("slow", "1", 0), createEvent("next", "1", 5)));
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> busyExecutor.events.size() + idleExecutor.events.size() == 2);
+        assertEquals(List.of("slow"), busyExecutor.events);
+        assertEquals(List.of("next"), idleExecutor.events);
+    }
+
+    private GameEventThread startThread(WorkStealingGroup group, EventExecutor eventExecutor) {
+        GameEventThread thread = GameEventThread.builder().
+                eventExecutor(eventExecutor).
+                loadFactorPrecision(10).
+                eventScheduler(new TimingWheelEventScheduler(1)).
+                bufferSize(16).
+                workStealingGroup(group).
+                build();
+        group.register(thread);
+        threads.add(thread);
+        new Thread(thread).start();
+        return thread;
+    }
+
+    private GameEvent createEvent(String id, String universeId, long delay) {
+        return GameEvent.builder().universeId(universeId).id(id).delay(delay).timeUnit(TimeUnit.MILLISECONDS).build();
+    }
+
+    static class RecordingExecutor implements EventExecutor {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean executeEvent(GameEvent gameEvent) {
+            if ("slow".equals(gameEvent.getId())) {
+                try {
+                    Thread.sleep(SLOW_EVENT_DURATION);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(gameEvent.getId());
+            return true;
+        }
+    }
+}